@@ -0,0 +1,80 @@
+package ru.clevertec.news.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Контекст приложения (профиль dev) для бенчмарков сервиса на PostgreSQL в контейнере.
+ */
+final class BenchmarkContext {
+
+    /**
+     * Редкое слово текста новостей: встречается в каждой тысячной новости.
+     */
+    static final String RARE_WORD = "quasar";
+
+    /**
+     * Частое слово текста новостей: встречается в каждой пятой новости.
+     */
+    static final String COMMON_WORD = "science";
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Запускает контейнер PostgreSQL.
+     *
+     * @return запущенный контейнер
+     */
+    static PostgreSQLContainer<?> startPostgres() {
+        var postgreSQLContainer = new PostgreSQLContainer<>("postgres:15.1-alpine");
+        postgreSQLContainer.start();
+        return postgreSQLContainer;
+    }
+
+    /**
+     * Поднимает контекст приложения без веб-сервера на базе из контейнера.
+     *
+     * @param postgreSQLContainer запущенный контейнер PostgreSQL
+     * @param properties          дополнительные свойства приложения
+     * @return контекст приложения
+     */
+    static ConfigurableApplicationContext run(PostgreSQLContainer<?> postgreSQLContainer, String... properties) {
+        return new SpringApplicationBuilder(NewsServiceBenchmark.BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("dev")
+                .properties(
+                        "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "feign.comments-service.value=commentService",
+                        "feign.comments-service.url=http://localhost:9998/api/comments",
+                        "logging.level.root=WARN"
+                )
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Заполняет таблицу новостей одним запросом generate_series и обновляет статистику планировщика.
+     * Чем больше номер новости, тем она новее; текст каждой пятой новости содержит {@link #COMMON_WORD},
+     * каждой тысячной - {@link #RARE_WORD}.
+     *
+     * @param context контекст приложения
+     * @param rows    количество новостей
+     */
+    static void seedNews(ConfigurableApplicationContext context, int rows) {
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into news (time, title, text, user_id, version, updated) "
+                + "select timestamp '2024-01-01 00:00:00' + g * interval '1 second', 'title ' || g, "
+                + "(array['economy', 'sport', ?, 'culture', 'politics'])[g % 5 + 1] || ' report ' || g "
+                + "|| case when g % 1000 = 0 then ' ' || ? else '' end, "
+                + "g % 1000, 0, timestamp '2024-01-01 00:00:00' from generate_series(1, ?) g",
+                COMMON_WORD, RARE_WORD, rows);
+        jdbcTemplate.execute("analyze news");
+    }
+}
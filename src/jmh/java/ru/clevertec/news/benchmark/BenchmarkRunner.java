@@ -0,0 +1,29 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+
+/**
+ * Запускает бенчмарки и сохраняет результаты в JSON для сравнения между сборками.
+ * Первый аргумент - регулярное выражение для отбора бенчмарков, второй - файл результатов.
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = "ru.clevertec.news.benchmark.*";
+    private static final String DEFAULT_RESULT = "build/reports/jmh/results.json";
+
+    public static void main(String[] args) throws RunnerException {
+        var result = Path.of(args.length > 1 ? args[1] : DEFAULT_RESULT).toAbsolutePath();
+        result.getParent().toFile().mkdirs();
+        var options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : DEFAULT_INCLUDE)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+    }
+}
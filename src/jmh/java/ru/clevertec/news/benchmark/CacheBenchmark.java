@@ -0,0 +1,72 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.impl.CacheLfu;
+import ru.clevertec.news.cache.impl.CacheLru;
+import ru.clevertec.news.cache.striped.CacheStriped;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузка на кэш профиля dev так, как его использует NewsProxyService:
+ * потоки Tomcat одновременно читают (6 потоков) и пишут (2 потока) записи по id новости.
+ * Ключей вдвое больше вместимости, поэтому часть чтений промахивается, а записи вытесняют.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Param({"LRU", "LFU", "STRIPED"})
+    private String algorithm;
+
+    @Param({"1000"})
+    private int capacity;
+
+    private Cache<Long, NewsDto> cache;
+    private NewsDto newsDto;
+    private long keys;
+
+    @Setup
+    public void setUp() {
+        cache = switch (algorithm) {
+            case "LFU" -> new CacheLfu<>();
+            case "STRIPED" -> new CacheStriped<>();
+            default -> new CacheLru<>();
+        };
+        cache.capacity(capacity);
+        newsDto = new NewsDto(1L, LocalDateTime.now(), "title", "text", List.of(), 1L);
+        keys = capacity * 2L;
+        for (long id = 0; id < capacity; id++) {
+            cache.put(id, newsDto);
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public NewsDto get() {
+        return cache.get(ThreadLocalRandom.current().nextLong(keys));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void put() {
+        cache.put(ThreadLocalRandom.current().nextLong(keys), newsDto);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public NewsDto getOnly() {
+        return cache.get(ThreadLocalRandom.current().nextLong(capacity));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ru.clevertec.news.cache.codec.CacheCodec;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование NewsDto для Redis: JDK-сериализация против компактного формата.
+ * Длинный текст проверяет ветку со сжатием.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Param({"JDK", "COMPACT"})
+    private CacheCodec codec;
+
+    @Param({"100", "4000"})
+    private int textLength;
+
+    private RedisSerializer<Object> serializer;
+    private NewsDto newsDto;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        serializer = codec.serializer(COMPRESSION_THRESHOLD);
+        newsDto = new NewsDto(1L, LocalDateTime.now(), "title", "news ".repeat(textLength / 5), null, 1L);
+        bytes = serializer.serialize(newsDto);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(newsDto);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,256 @@
+package ru.clevertec.news.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.create.NewsCreateDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+import ru.clevertec.news.dto.page.PageDto;
+import ru.clevertec.news.service.NewsService;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Нагрузочный тест GET /api/news/{id}/comments в трех режимах: платформенные потоки, виртуальные потоки
+ * и неблокирующий клиент WebClient (news.comments.reactive.enabled). Микросервис комментариев заменяется заглушкой WireMock с задержкой ответа, БД - PostgreSQL в контейнере,
+ * кэш страниц комментариев отключен, чтобы каждый запрос ходил в заглушку. Каждый из CLIENTS клиентов
+ * в своем виртуальном потоке отправляет запросы друг за другом; после прогрева считаются пропускная
+ * способность, p50/p99 времени ответа и ошибки, а также пиковые количество платформенных потоков JVM
+ * и занятая куча во время замера. Заглушка и клиенты работают в той же JVM, поэтому их потоки входят
+ * в число потоков до запуска приложения (platformThreadsBefore). Результаты пишутся в JSON (по умолчанию
+ * build/reports/load/comments.json).
+ * <p>
+ * Закрепление виртуальных потоков можно проверить, запустив тест с -Djdk.tracePinnedThreads=short.
+ */
+public class CommentsLoadTest {
+
+    private static final int CLIENTS = 2000;
+    private static final int NEWS_COUNT = 100;
+    private static final int COMMENTS_DELAY_MILLIS = 100;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(100);
+    private static final String DEFAULT_RESULT = "build/reports/load/comments.json";
+
+    public static void main(String[] args) throws Exception {
+        var result = Path.of(args.length > 0 ? args[0] : DEFAULT_RESULT).toAbsolutePath();
+        var objectMapper = new ObjectMapper();
+        var postgreSQLContainer = new PostgreSQLContainer<>("postgres:15.1-alpine");
+        var comments = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(16));
+        postgreSQLContainer.start();
+        comments.start();
+        try {
+            comments.stubFor(get(urlPathMatching("/api/comments/newsId/.*"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withFixedDelay(COMMENTS_DELAY_MILLIS)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody(objectMapper.writeValueAsString(
+                                    new PageContentDto<>(new PageDto(1, 15, 0, 0L), List.of())))));
+            var results = new LinkedHashMap<String, Map<String, Object>>();
+            results.put("platform", run(postgreSQLContainer, comments.port()));
+            results.put("virtual", run(postgreSQLContainer, comments.port(), "spring.threads.virtual.enabled=true"));
+            results.put("reactive", run(postgreSQLContainer, comments.port(), "news.comments.reactive.enabled=true"));
+            results.forEach((mode, stats) -> System.out.println(mode + ": " + stats));
+            result.getParent().toFile().mkdirs();
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(result.toFile(), results);
+        } finally {
+            comments.stop();
+            postgreSQLContainer.stop();
+        }
+    }
+
+    private static Map<String, Object> run(PostgreSQLContainer<?> postgreSQLContainer, int commentsPort,
+                                           String... modeProperties) throws InterruptedException {
+        System.gc();
+        var threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        var context = new SpringApplicationBuilder(NewsServiceBenchmark.BenchmarkApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("dev")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "spring.datasource.hikari.maximum-pool-size=50",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "cache.algorithm=LRU",
+                        "cache.capacity=" + NEWS_COUNT,
+                        "cache.comments.ttl=PT0S",
+                        "cache.comments.stale-ttl=PT0S",
+                        "news.comments.timeout=PT5S",
+                        "news.comments.bulkhead.max-concurrent-calls=" + CLIENTS,
+                        "feign.comments-service.value=commentService",
+                        "feign.comments-service.url=http://localhost:" + commentsPort + "/api/comments",
+                        "logging.level.root=WARN"
+                )
+                .properties(modeProperties)
+                .run();
+        try {
+            var ids = context.getBean(NewsService.class)
+                    .createAll(IntStream.rangeClosed(1, NEWS_COUNT)
+                            .mapToObj(i -> new NewsCreateDto("title " + i, "text of news " + i, (long) i % 10))
+                            .toList())
+                    .stream()
+                    .map(NewsDto::getId)
+                    .toList();
+            var port = context.getEnvironment().getProperty("local.server.port");
+            var stats = load("http://localhost:" + port + "/api/news/", ids);
+            stats.put("platformThreadsBefore", threadsBefore);
+            return stats;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<String, Object> load(String baseUrl, List<Long> ids) throws InterruptedException {
+        var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        var start = System.nanoTime();
+        var measureFrom = start + WARMUP.toNanos();
+        var measureTo = measureFrom + MEASUREMENT.toNanos();
+        var errors = new LongAdder();
+        var latencies = new ArrayList<long[]>();
+        var threads = new ArrayList<Thread>();
+        var footprint = new FootprintSampler(measureFrom, measureTo);
+        var sampler = Thread.ofPlatform().daemon().start(footprint);
+        for (int i = 0; i < CLIENTS; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                var recorder = new LatencyRecorder();
+                while (System.nanoTime() < measureTo) {
+                    var id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    var request = HttpRequest.newBuilder(URI.create(baseUrl + id + "/comments"))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    var requestStart = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 300;
+                    } catch (IOException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    var requestEnd = System.nanoTime();
+                    if (requestStart < measureFrom || requestEnd > measureTo) {
+                        continue;
+                    }
+                    if (ok) {
+                        recorder.add(requestEnd - requestStart);
+                    } else {
+                        errors.increment();
+                    }
+                }
+                synchronized (latencies) {
+                    latencies.add(recorder.toArray());
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        sampler.join();
+        var all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("clients", CLIENTS);
+        stats.put("requests", all.length);
+        stats.put("errors", errors.sum());
+        stats.put("throughputPerSecond", all.length / (double) MEASUREMENT.toSeconds());
+        stats.put("p50Millis", percentile(all, 0.50));
+        stats.put("p99Millis", percentile(all, 0.99));
+        stats.put("platformThreadsPeak", footprint.threadsPeak);
+        stats.put("heapUsedPeakMb", footprint.heapUsedPeak / (1024.0 * 1024.0));
+        return stats;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Пиковые количество живых платформенных потоков и занятая куча за время замера.
+     * Виртуальные потоки ThreadMXBean не считает: их стеки лежат в куче и видны по heapUsedPeak.
+     */
+    private static final class FootprintSampler implements Runnable {
+
+        private final long from;
+        private final long to;
+        private volatile int threadsPeak;
+        private volatile long heapUsedPeak;
+
+        FootprintSampler(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void run() {
+            var threadMXBean = ManagementFactory.getThreadMXBean();
+            var memoryMXBean = ManagementFactory.getMemoryMXBean();
+            try {
+                Thread.sleep(Math.max(0, (from - System.nanoTime()) / 1_000_000));
+                while (System.nanoTime() < to) {
+                    threadsPeak = Math.max(threadsPeak, threadMXBean.getThreadCount());
+                    heapUsedPeak = Math.max(heapUsedPeak, memoryMXBean.getHeapMemoryUsage().getUsed());
+                    Thread.sleep(SAMPLE_INTERVAL.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Времена ответов одного клиента в наносекундах.
+     */
+    private static final class LatencyRecorder {
+
+        private long[] values = new long[64];
+        private int count;
+
+        void add(long value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.clevertec.news.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import ru.clevertec.news.converter.NewsConverter;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.model.entity.News;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Преобразование сущностей News в NewsDto сгенерированным MapStruct конвертером.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsConverterBenchmark {
+
+    @Param({"15", "1000", "10000"})
+    private int size;
+
+    private NewsConverter newsConverter;
+    private News news;
+    private List<News> newsList;
+
+    @Setup
+    public void setUp() {
+        newsConverter = Mappers.getMapper(NewsConverter.class);
+        var time = LocalDateTime.now();
+        newsList = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new News(id, time, "title " + id, "text of news " + id, id % 10, 0L, time))
+                .toList();
+        news = newsList.get(0);
+    }
+
+    @Benchmark
+    public NewsDto convert() {
+        return newsConverter.convert(news);
+    }
+
+    @Benchmark
+    public List<NewsDto> convertToList() {
+        return newsConverter.convertToList(newsList);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.clevertec.news.dto.create.NewsCreateDto;
+import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.service.impl.NewsServiceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Вставка 10 000 новостей: по одной через create (транзакция на новость) против пакетного createAll
+ * частями по {@link NewsServiceImpl#BULK_MAX_SIZE}, как их отправлял бы клиент POST /api/news/bulk.
+ * Каждый замер - одна вставка всех новостей в очищенные таблицы.
+ * Пакеты вставок включены так, как их нужно включить в приложении (см. {@link NewsServiceImpl#createAll}):
+ * без hibernate.jdbc.batch_size createAll тоже вставлял бы новости по одной.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NewsInsertBenchmark {
+
+    private static final int NEWS_COUNT = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private JdbcTemplate jdbcTemplate;
+    private List<NewsCreateDto> news;
+
+    @Setup
+    public void setUp() {
+        postgreSQLContainer = BenchmarkContext.startPostgres();
+        var url = postgreSQLContainer.getJdbcUrl();
+        context = BenchmarkContext.run(postgreSQLContainer,
+                "spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + BATCH_SIZE,
+                "spring.jpa.properties.hibernate.order_inserts=true"
+        );
+        newsService = context.getBean(NewsService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        news = IntStream.rangeClosed(1, NEWS_COUNT)
+                .mapToObj(i -> new NewsCreateDto("title " + i, "text of news " + i, (long) i % 10))
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("truncate table news, news_outbox");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgreSQLContainer.stop();
+    }
+
+    @Benchmark
+    public int single() {
+        news.forEach(newsService::create);
+        return news.size();
+    }
+
+    @Benchmark
+    public int bulk() {
+        var created = 0;
+        for (var from = 0; from < news.size(); from += NewsServiceImpl.BULK_MAX_SIZE) {
+            created += newsService.createAll(news.subList(from, Math.min(from + NewsServiceImpl.BULK_MAX_SIZE, news.size()))).size();
+        }
+        return created;
+    }
+}
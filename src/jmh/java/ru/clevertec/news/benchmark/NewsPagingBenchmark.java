@@ -0,0 +1,85 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+import ru.clevertec.news.dto.page.PageParamDto;
+import ru.clevertec.news.model.dto.CursorPageDto;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.util.CursorUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Постраничный вывод новостей без фильтра на таблице из 1 000 000 строк: offset-пагинация findAll
+ * против keyset-пагинации findAllByCursor на первой, тысячной и последней (100 000-й) странице.
+ * Курсор страницы вычисляется заранее, как если бы клиент дошел до нее, листая ленту.
+ * Keyset-пагинация считает общее количество точно (EXACT), оценочно (ESTIMATED) или не считает совсем (NONE),
+ * offset-пагинация всегда выполняет точный count(*). Разница keysetExact и offset - цена пропуска строк
+ * через offset, разница keysetExact и keysetEstimated - цена точного подсчета.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsPagingBenchmark {
+
+    private static final int NEWS_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1", "1000", "100000"})
+    private int pageNumber;
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private NewsFilterDto filter;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        postgreSQLContainer = BenchmarkContext.startPostgres();
+        context = BenchmarkContext.run(postgreSQLContainer);
+        BenchmarkContext.seedNews(context, NEWS_COUNT);
+        newsService = context.getBean(NewsService.class);
+        filter = new NewsFilterDto(null, null);
+        cursor = pageNumber == 1 ? null : context.getBean(JdbcTemplate.class).queryForObject(
+                "select time, id from news order by time desc, id desc offset ? limit 1",
+                (rs, rowNum) -> CursorUtils.encode(new NewsCursor(rs.getTimestamp("time").toLocalDateTime(), rs.getLong("id"))),
+                (pageNumber - 1) * PAGE_SIZE - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgreSQLContainer.stop();
+    }
+
+    @Benchmark
+    public PageContentDto<NewsDto> offset() {
+        return newsService.findAll(new PageParamDto(pageNumber, PAGE_SIZE), filter);
+    }
+
+    @Benchmark
+    public CursorPageDto<NewsDto> keysetExact() {
+        return newsService.findAllByCursor(cursor, PAGE_SIZE, filter, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public CursorPageDto<NewsDto> keysetEstimated() {
+        return newsService.findAllByCursor(cursor, PAGE_SIZE, filter, CountMode.ESTIMATED);
+    }
+
+    @Benchmark
+    public CursorPageDto<NewsDto> keysetWithoutCount() {
+        return newsService.findAllByCursor(cursor, PAGE_SIZE, filter, CountMode.NONE);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.clevertec.news.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import ru.clevertec.news.cache.json.NewsJson;
+import ru.clevertec.news.cache.json.NewsJsonCache;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Работа процессора на один ответ GET /api/news/{id} при попадании в кэш:
+ * сериализация (и сжатие) закэшированного NewsDto против готовых байт из NewsJsonCache.
+ * Бенчмарк однопоточный, поэтому среднее время операции соответствует затратам процессора на запрос.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsResponseBenchmark {
+
+    @Param({"200", "20000"})
+    private int textLength;
+
+    private ObjectMapper objectMapper;
+    private NewsJsonCache newsJsonCache;
+    private NewsDto newsDto;
+    private NewsVersionDto version;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        newsJsonCache = new NewsJsonCache(objectMapper, true, 1000, Duration.ofMinutes(10), 1024);
+        var time = LocalDateTime.now();
+        newsDto = new NewsDto(1L, time, "title", "news ".repeat(textLength / 5), null, 1L);
+        version = new NewsVersionDto(1L, 0L, time);
+        newsJsonCache.get(version, () -> newsDto);
+    }
+
+    @Benchmark
+    public byte[] dtoCache() throws IOException {
+        return objectMapper.writeValueAsBytes(newsDto);
+    }
+
+    @Benchmark
+    public byte[] dtoCacheGzip() throws IOException {
+        var json = objectMapper.writeValueAsBytes(newsDto);
+        var bytes = new ByteArrayOutputStream(json.length / 4);
+        try (var out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public NewsJson jsonCache() {
+        return newsJsonCache.get(version, () -> newsDto);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.clevertec.news.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+import ru.clevertec.news.dto.page.PageParamDto;
+import ru.clevertec.news.model.dto.CursorPageDto;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.service.NewsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница фильтра новостей по тексту на таблице из 1 000 000 строк в режимах поиска
+ * LIKE (подстрока по триграммному индексу) и FULL_TEXT (tsvector по GIN-индексу с ранжированием).
+ * Слово запроса встречается в каждой тысячной (quasar) или в каждой пятой (science) новости.
+ * Fallback на подстроку выключен, чтобы замер полнотекстового режима не включал повторный поиск.
+ * search - страница с точным count(*) по найденным новостям, searchWithoutCount - первая страница
+ * keyset-пагинации без подсчета, то есть только стоимость поиска совпадений.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsSearchBenchmark {
+
+    private static final int NEWS_COUNT = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"LIKE", "FULL_TEXT"})
+    private String searchMode;
+
+    @Param({BenchmarkContext.RARE_WORD, BenchmarkContext.COMMON_WORD})
+    private String word;
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private NewsFilterDto filter;
+
+    @Setup
+    public void setUp() {
+        postgreSQLContainer = BenchmarkContext.startPostgres();
+        context = BenchmarkContext.run(postgreSQLContainer,
+                "news.search.mode=" + searchMode,
+                "news.search.like-fallback=false"
+        );
+        BenchmarkContext.seedNews(context, NEWS_COUNT);
+        newsService = context.getBean(NewsService.class);
+        filter = new NewsFilterDto(null, word);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgreSQLContainer.stop();
+    }
+
+    @Benchmark
+    public PageContentDto<NewsDto> search() {
+        return newsService.findAll(new PageParamDto(1, PAGE_SIZE), filter);
+    }
+
+    @Benchmark
+    public CursorPageDto<NewsDto> searchWithoutCount() {
+        return newsService.findAllByCursor(null, PAGE_SIZE, filter, CountMode.NONE);
+    }
+}
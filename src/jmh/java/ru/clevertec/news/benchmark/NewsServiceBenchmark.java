@@ -0,0 +1,129 @@
+package ru.clevertec.news.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.create.NewsCreateDto;
+import ru.clevertec.news.dto.update.NewsUpdateDto;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.specification.NewsSpecification;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Горячие пути сервиса на поднятом контексте приложения (профиль dev) с PostgreSQL в контейнере:
+ * получение новости по id через NewsProxyService, построение предиката фильтра новостей и обновление новости.
+ * EntityManager и CriteriaBuilder для предиката создаются один раз на прогон, чтобы замер не включал их создание.
+ * Для обновления дополнительно выводится число SQL-запросов на операцию (statements).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsServiceBenchmark {
+
+    private static final int NEWS_COUNT = 1000;
+
+    @Param({"100", "2000"})
+    private int cacheCapacity;
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+    private ConfigurableApplicationContext context;
+    private NewsService newsService;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private Statistics statistics;
+    private NewsFilterDto filter;
+    private long firstId;
+
+    @Setup
+    public void setUp() {
+        postgreSQLContainer = BenchmarkContext.startPostgres();
+        context = BenchmarkContext.run(postgreSQLContainer,
+                "cache.algorithm=LRU",
+                "cache.capacity=" + cacheCapacity,
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+        );
+        newsService = context.getBean(NewsService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var created = newsService.createAll(IntStream.rangeClosed(1, NEWS_COUNT)
+                .mapToObj(i -> new NewsCreateDto("title " + i, "text of news " + i, (long) i % 10))
+                .toList());
+        firstId = created.get(0).getId();
+        filter = new NewsFilterDto("title", "text");
+        entityManager = entityManagerFactory.createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+        postgreSQLContainer.stop();
+    }
+
+    @Benchmark
+    public NewsDto findNewsById() {
+        return newsService.findNewsById(firstId + ThreadLocalRandom.current().nextInt(NEWS_COUNT));
+    }
+
+    @Benchmark
+    public Predicate buildFilterPredicate() {
+        var query = criteriaBuilder.createQuery(News.class);
+        return NewsSpecification.findAll(filter).toPredicate(query.from(News.class), query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public NewsDto update(StatementCounters counters) {
+        var id = firstId + ThreadLocalRandom.current().nextInt(NEWS_COUNT);
+        var before = statistics.getPrepareStatementCount();
+        var updated = newsService.update(new NewsUpdateDto(id, "title " + id, "updated text " + id, id % 10), null);
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.updates++;
+        return updated;
+    }
+
+    /**
+     * Счетчики SQL-запросов, которые JMH выводит рядом с результатом бенчмарка обновления.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounters {
+
+        public long statements;
+        public long updates;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            updates = 0;
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableFeignClients(basePackages = "ru.clevertec.news.feign")
+    @ComponentScan(basePackages = "ru.clevertec.news")
+    static class BenchmarkApplication {
+    }
+}
@@ -0,0 +1,61 @@
+package ru.clevertec.news.cache.batch;
+
+import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Пакетный доступ к кэшу новостей процесса, который использует NewsProxyService.
+ * Кэш находится в памяти, поэтому пакетное чтение - это чтение по каждому id без сетевых обращений.
+ * Время жизни записей отслеживается тем же {@link RefreshAhead}, что и в NewsProxyService:
+ * истекшие записи не возвращаются и удаляются, сохраненные записи отмечаются.
+ */
+public class LocalNewsBatchCache implements NewsBatchCache {
+
+    private final Cache<Long, NewsDto> cache;
+
+    /**
+     * Время жизни записей; null - записи не истекают.
+     */
+    private final RefreshAhead refreshAhead;
+
+    public LocalNewsBatchCache(Cache<Long, NewsDto> cache) {
+        this(cache, null);
+    }
+
+    public LocalNewsBatchCache(Cache<Long, NewsDto> cache, RefreshAhead refreshAhead) {
+        this.cache = cache;
+        this.refreshAhead = refreshAhead;
+    }
+
+    @Override
+    public Map<Long, NewsDto> getAll(Collection<Long> ids) {
+        var found = new HashMap<Long, NewsDto>();
+        for (var id : ids) {
+            var news = cache.get(id);
+            if (news != null && refreshAhead != null && refreshAhead.isExpired(id)) {
+                cache.remove(id);
+                refreshAhead.forget(id);
+                news = null;
+            }
+            if (news != null) {
+                found.put(id, news);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<Long, NewsDto> news) {
+        news.forEach((id, newsDto) -> {
+            cache.put(id, newsDto);
+            if (refreshAhead != null) {
+                refreshAhead.written(id);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package ru.clevertec.news.cache.batch;
+
+import ru.clevertec.news.dto.NewsDto;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Пакетный доступ к кэшу новостей по id: одно обращение к кэшу на весь набор id
+ * вместо обращения на каждую новость.
+ */
+public interface NewsBatchCache {
+
+    /**
+     * Возвращает найденные в кэше новости.
+     *
+     * @param ids id новостей
+     * @return новости по id, отсутствующих в кэше новостей в результате нет
+     */
+    Map<Long, NewsDto> getAll(Collection<Long> ids);
+
+    /**
+     * Сохраняет новости в кэш.
+     *
+     * @param news новости по id
+     */
+    void putAll(Map<Long, NewsDto> news);
+}
@@ -0,0 +1,107 @@
+package ru.clevertec.news.cache.batch;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import ru.clevertec.news.cache.near.NearCache;
+import ru.clevertec.news.cache.near.NearCacheManager;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пакетный доступ к кэшу новостей в Redis. Новости сначала ищутся в локальном кэше процесса,
+ * если кэш двухуровневый, а оставшиеся id читаются из Redis одной командой MGET.
+ * Запись выполняется в одном конвейере команд SET. Ключи и значения формируются так же,
+ * как в {@link RedisCache}, поэтому записи общие с @Cacheable("news"), время жизни каждой записи
+ * берется из конфигурации кэша.
+ */
+public class RedisNewsBatchCache implements NewsBatchCache {
+
+    private static final String CACHE_NAME = "news";
+
+    private final Cache cache;
+    private final RedisCache redisCache;
+    private final RedisConnectionFactory connectionFactory;
+
+    public RedisNewsBatchCache(NearCacheManager cacheManager, RedisConnectionFactory connectionFactory) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.redisCache = (RedisCache) cacheManager.getDelegate().getCache(CACHE_NAME);
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, NewsDto> getAll(Collection<Long> ids) {
+        var keys = new ArrayList<Object>(ids);
+        var found = cache instanceof NearCache nearCache
+                ? nearCache.getAll(keys, this::mget)
+                : mget(keys);
+        return (Map<Long, NewsDto>) (Map<?, ?>) found;
+    }
+
+    @Override
+    public void putAll(Map<Long, NewsDto> news) {
+        if (news.isEmpty()) {
+            return;
+        }
+        if (cache instanceof NearCache nearCache) {
+            nearCache.putAll(news, this::set);
+        } else {
+            set(news);
+        }
+    }
+
+    private Map<Object, Object> mget(List<Object> ids) {
+        var found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        var keys = ids.stream().map(this::key).toArray(byte[][]::new);
+        List<byte[]> values;
+        try (var connection = connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(keys);
+        }
+        var serializer = redisCache.getCacheConfiguration().getValueSerializationPair();
+        for (int i = 0; i < ids.size(); i++) {
+            var value = values == null ? null : values.get(i);
+            if (value != null) {
+                found.put(ids.get(i), serializer.read(ByteBuffer.wrap(value)));
+            }
+        }
+        return found;
+    }
+
+    private void set(Map<?, ?> news) {
+        var configuration = redisCache.getCacheConfiguration();
+        try (var connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            news.forEach((id, value) -> connection.stringCommands().set(key(id), bytes(configuration.getValueSerializationPair().write(value)),
+                    expiration(configuration.getTtlFunction().getTimeToLive(id, value)), RedisStringCommands.SetOption.upsert()));
+            connection.closePipeline();
+        }
+    }
+
+    private static Expiration expiration(Duration ttl) {
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    private byte[] key(Object id) {
+        var configuration = redisCache.getCacheConfiguration();
+        return bytes(configuration.getKeySerializationPair().write(configuration.getKeyPrefixFor(CACHE_NAME) + id));
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.clevertec.news.cache.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Формат хранения значений кэша в Redis.
+ */
+public enum CacheCodec {
+
+    /**
+     * Стандартная Java-сериализация.
+     */
+    JDK {
+        @Override
+        public RedisSerializer<Object> serializer(int compressionThreshold) {
+            return RedisSerializer.java();
+        }
+    },
+
+    /**
+     * Компактный бинарный формат для NewsDto с необязательным сжатием.
+     */
+    COMPACT {
+        @Override
+        public RedisSerializer<Object> serializer(int compressionThreshold) {
+            return new CompactRedisSerializer(compressionThreshold);
+        }
+    };
+
+    /**
+     * Создает сериализатор значений кэша.
+     *
+     * @param compressionThreshold размер значения в байтах, начиная с которого оно сжимается; 0 - не сжимать
+     * @return сериализатор значений
+     */
+    public abstract RedisSerializer<Object> serializer(int compressionThreshold);
+}
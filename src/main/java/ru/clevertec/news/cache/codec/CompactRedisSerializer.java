@@ -0,0 +1,196 @@
+package ru.clevertec.news.cache.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Компактный бинарный сериализатор значений кэша новостей.
+ * <p>
+ * NewsDto без комментариев записывается как байт формата, битовая маска заполненных полей
+ * и сами поля (числа и длины строк в формате varint, строки в UTF-8). Если запись получается
+ * не меньше порога, тело сжимается Deflater. Остальные значения, в том числе NewsDto
+ * с комментариями, записываются Java-сериализацией; такие данные начинаются с магического
+ * числа 0xACED, поэтому при чтении форматы не путаются, и значения, записанные до смены кодека,
+ * продолжают читаться.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte COMPACT = 1;
+    private static final byte COMPACT_DEFLATED = 2;
+
+    private static final int ID = 1;
+    private static final int TIME = 1 << 1;
+    private static final int TITLE = 1 << 2;
+    private static final int TEXT = 1 << 3;
+    private static final int USER_ID = 1 << 4;
+    private static final int EMPTY_COMMENTS = 1 << 5;
+
+    private final RedisSerializer<Object> fallback = RedisSerializer.java();
+    private final int compressionThreshold;
+
+    public CompactRedisSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof NewsDto news) || news.getComments() != null && !news.getComments().isEmpty()) {
+            return fallback.serialize(value);
+        }
+        var body = writeBody(news);
+        var out = new ByteArrayOutputStream(body.length + 1);
+        if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+            out.write(COMPACT_DEFLATED);
+            writeVarLong(out, body.length);
+            out.writeBytes(deflate(body));
+        } else {
+            out.write(COMPACT);
+            out.writeBytes(body);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        var buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        return switch (bytes[0]) {
+            case COMPACT -> readBody(buffer);
+            case COMPACT_DEFLATED -> {
+                var length = (int) readVarLong(buffer);
+                yield readBody(ByteBuffer.wrap(inflate(buffer, length)));
+            }
+            default -> fallback.deserialize(bytes);
+        };
+    }
+
+    private byte[] writeBody(NewsDto news) {
+        var out = new ByteArrayOutputStream(64);
+        var mask = (news.getId() != null ? ID : 0)
+                | (news.getTime() != null ? TIME : 0)
+                | (news.getTitle() != null ? TITLE : 0)
+                | (news.getText() != null ? TEXT : 0)
+                | (news.getUserId() != null ? USER_ID : 0)
+                | (news.getComments() != null ? EMPTY_COMMENTS : 0);
+        out.write(mask);
+        if (news.getId() != null) {
+            writeVarLong(out, news.getId());
+        }
+        if (news.getTime() != null) {
+            writeVarLong(out, news.getTime().toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(out, news.getTime().getNano());
+        }
+        if (news.getTitle() != null) {
+            writeString(out, news.getTitle());
+        }
+        if (news.getText() != null) {
+            writeString(out, news.getText());
+        }
+        if (news.getUserId() != null) {
+            writeVarLong(out, news.getUserId());
+        }
+        return out.toByteArray();
+    }
+
+    private NewsDto readBody(ByteBuffer buffer) {
+        try {
+            var mask = buffer.get();
+            var id = (mask & ID) != 0 ? readVarLong(buffer) : null;
+            var time = (mask & TIME) != 0
+                    ? LocalDateTime.ofEpochSecond(readVarLong(buffer), (int) readVarLong(buffer), ZoneOffset.UTC)
+                    : null;
+            var title = (mask & TITLE) != 0 ? readString(buffer) : null;
+            var text = (mask & TEXT) != 0 ? readString(buffer) : null;
+            var userId = (mask & USER_ID) != 0 ? readVarLong(buffer) : null;
+            return new NewsDto(id, time, title, text, (mask & EMPTY_COMMENTS) != 0 ? new ArrayList<>() : null, userId);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize compact news value", e);
+        }
+    }
+
+    private byte[] deflate(byte[] body) {
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(body.length / 2);
+            var chunk = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(ByteBuffer buffer, int length) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(buffer);
+            var body = new byte[length];
+            var read = 0;
+            while (read < length && !inflater.finished()) {
+                var count = inflater.inflate(body, read, length - read);
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new SerializationException("Truncated compact news value");
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Cannot inflate compact news value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var length = (int) readVarLong(buffer);
+        var value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            var b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in compact news value");
+    }
+}
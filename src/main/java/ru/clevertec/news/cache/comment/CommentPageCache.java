@@ -0,0 +1,270 @@
+package ru.clevertec.news.cache.comment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.near.LocalCache;
+import ru.clevertec.news.dto.CommentDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц комментариев по ключу (newsId, pageNumber, pageSize) с коротким временем жизни
+ * и обновлением в стиле stale-while-revalidate: в течение ttl запись считается свежей,
+ * еще stale-ttl она отдается как есть, а ее обновление запускается в фоне.
+ * Дольше, до fallback-ttl, запись хранится только как последняя известная страница
+ * для ответа при недоступности микросервиса комментариев ({@link #getLast}).
+ * <p>
+ * Реализует {@link Cache} по ключу {@link #key}, как и остальные кэши сервиса. Записи хранятся в памяти процесса:
+ * время жизни страниц - секунды, и обращение к Redis на каждый запрос комментариев съело бы выигрыш от кэша.
+ * Страницы, загруженные до {@link #evict}, в кэш не попадают ({@link #stamp}).
+ */
+@Slf4j
+@Component
+public class CommentPageCache implements Cache<String, List<CommentDto>> {
+
+    private static final String SEPARATOR = ":";
+
+    private final long cacheTtlNanos;
+    private volatile LocalCache<Entry> cache;
+    private final Executor newsTaskExecutor;
+    private final long ttlNanos;
+    private final long staleTtlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Счетчик удалений. Страница, загрузка которой началась до удаления, не кладется в кэш:
+     * иначе удаленная страница вернулась бы в кэш до истечения ttl.
+     */
+    private long evictions;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    public CommentPageCache(Executor newsTaskExecutor, int maxSize, Duration ttl, Duration staleTtl) {
+        this(newsTaskExecutor, maxSize, ttl, staleTtl, ttl.plus(staleTtl));
+    }
+
+    @Autowired
+    public CommentPageCache(Executor newsTaskExecutor,
+                            @Value("${cache.comments.max-size:10000}") int maxSize,
+                            @Value("${cache.comments.ttl:PT5S}") Duration ttl,
+                            @Value("${cache.comments.stale-ttl:PT30S}") Duration staleTtl,
+                            @Value("${cache.comments.fallback-ttl:PT10M}") Duration fallbackTtl) {
+        var staleUntil = ttl.plus(staleTtl);
+        this.cacheTtlNanos = (fallbackTtl.compareTo(staleUntil) > 0 ? fallbackTtl : staleUntil).toNanos();
+        this.cache = new LocalCache<>(maxSize, Duration.ofNanos(cacheTtlNanos));
+        this.newsTaskExecutor = newsTaskExecutor;
+        this.ttlNanos = ttl.toNanos();
+        this.staleTtlNanos = staleUntil.toNanos();
+    }
+
+    /**
+     * Возвращает страницу комментариев из кэша, если она там есть.
+     * Для устаревшей записи запускает фоновое обновление через loader.
+     *
+     * @param newsId     id новости
+     * @param pageNumber номер страницы
+     * @param pageSize   размер страницы
+     * @param loader     загрузка страницы из микросервиса комментариев
+     * @return комментарии или null при промахе
+     */
+    public List<CommentDto> get(Long newsId, Integer pageNumber, Integer pageSize, Supplier<List<CommentDto>> loader) {
+        var key = key(newsId, pageNumber, pageSize);
+        var stamp = stamp();
+        var entry = cache.get(key);
+        var age = entry == null ? 0 : System.nanoTime() - entry.loadedAt();
+        if (entry == null || age >= staleTtlNanos) {
+            misses.increment();
+            return null;
+        }
+        if (age < ttlNanos) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+            refresh(key, loader, stamp);
+        }
+        return entry.comments();
+    }
+
+    /**
+     * Возвращает последнюю известную страницу комментариев независимо от ее возраста,
+     * не обновляя ее и не учитывая обращение в статистике.
+     *
+     * @param newsId     id новости
+     * @param pageNumber номер страницы
+     * @param pageSize   размер страницы
+     * @return комментарии или null, если страницы нет или она старше fallback-ttl
+     */
+    public List<CommentDto> getLast(Long newsId, Integer pageNumber, Integer pageSize) {
+        var entry = cache.get(key(newsId, pageNumber, pageSize));
+        return entry == null ? null : entry.comments();
+    }
+
+    /**
+     * Возвращает страницу комментариев по ключу {@link #key}, если она не старше ttl + stale-ttl,
+     * не обновляя ее и не учитывая обращение в статистике.
+     *
+     * @param key ключ страницы
+     * @return комментарии или null
+     */
+    @Override
+    public List<CommentDto> get(String key) {
+        var entry = cache.get(key);
+        return entry == null || System.nanoTime() - entry.loadedAt() >= staleTtlNanos ? null : entry.comments();
+    }
+
+    /**
+     * Сохраняет страницу комментариев по ключу {@link #key}.
+     *
+     * @param key      ключ страницы
+     * @param comments комментарии
+     */
+    @Override
+    public void put(String key, List<CommentDto> comments) {
+        cache.put(key, new Entry(comments, System.nanoTime()));
+    }
+
+    /**
+     * Удаляет страницу комментариев по ключу {@link #key}.
+     *
+     * @param key ключ страницы
+     */
+    @Override
+    public void remove(String key) {
+        cache.remove(key);
+    }
+
+    /**
+     * Задает максимальное количество страниц. Текущие записи при этом удаляются.
+     *
+     * @param capacity максимальное количество страниц
+     */
+    @Override
+    public void capacity(int capacity) {
+        cache = new LocalCache<>(capacity, Duration.ofNanos(cacheTtlNanos));
+    }
+
+    /**
+     * Сохраняет страницу комментариев.
+     *
+     * @param newsId     id новости
+     * @param pageNumber номер страницы
+     * @param pageSize   размер страницы
+     * @param comments   комментарии
+     */
+    public void put(Long newsId, Integer pageNumber, Integer pageSize, List<CommentDto> comments) {
+        put(key(newsId, pageNumber, pageSize), comments);
+    }
+
+    /**
+     * Сохраняет загруженную страницу комментариев, если после stamp страницы новостей не удалялись.
+     *
+     * @param newsId     id новости
+     * @param pageNumber номер страницы
+     * @param pageSize   размер страницы
+     * @param comments   комментарии
+     * @param stamp      отметка, полученная до загрузки страницы
+     */
+    public void put(Long newsId, Integer pageNumber, Integer pageSize, List<CommentDto> comments, long stamp) {
+        put(key(newsId, pageNumber, pageSize), comments, stamp);
+    }
+
+    /**
+     * Возвращает отметку, которую нужно получить до загрузки страницы и передать в {@link #put(Long, Integer, Integer, List, long)}.
+     *
+     * @return отметка удалений
+     */
+    public long stamp() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все страницы комментариев новости.
+     *
+     * @param newsId id новости
+     */
+    public void evict(Long newsId) {
+        var prefix = newsId + SEPARATOR;
+        lock.lock();
+        try {
+            evictions++;
+            cache.removeIf(key -> key.startsWith(prefix));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает статистику обращений.
+     *
+     * @return статистика кэша
+     */
+    public CommentPageCacheStats stats() {
+        return new CommentPageCacheStats(hits.sum(), staleHits.sum(), misses.sum(), refreshes.sum(), cache.size());
+    }
+
+    /**
+     * Возвращает ключ страницы комментариев.
+     *
+     * @param newsId     id новости
+     * @param pageNumber номер страницы
+     * @param pageSize   размер страницы
+     * @return ключ страницы
+     */
+    public static String key(Long newsId, Integer pageNumber, Integer pageSize) {
+        return newsId + SEPARATOR + pageNumber + SEPARATOR + pageSize;
+    }
+
+    private void put(String key, List<CommentDto> comments, long stamp) {
+        lock.lock();
+        try {
+            if (stamp == evictions) {
+                put(key, comments);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refresh(String key, Supplier<List<CommentDto>> loader, long stamp) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            newsTaskExecutor.execute(() -> {
+                try {
+                    put(key, loader.get(), stamp);
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    log.warn("CommentPageCache: refresh of " + key + " failed: " + e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            log.warn("CommentPageCache: refresh of " + key + " rejected: " + e.getMessage());
+        }
+    }
+
+    private record Entry(List<CommentDto> comments, long loadedAt) {
+    }
+}
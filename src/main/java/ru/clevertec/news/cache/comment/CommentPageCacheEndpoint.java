@@ -0,0 +1,34 @@
+package ru.clevertec.news.cache.comment;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.service.CommentService;
+
+/**
+ * Actuator endpoint со статистикой кэша страниц комментариев.
+ * DELETE /actuator/commentcache/{newsId} сбрасывает страницы комментариев новости: его вызывает
+ * микросервис комментариев при их изменении. Endpoint доступен только через management-порт и exposure,
+ * а не как публичный API новостей.
+ */
+@Component
+@AllArgsConstructor
+@Endpoint(id = "commentcache")
+public class CommentPageCacheEndpoint {
+
+    private final CommentPageCache commentPageCache;
+    private final CommentService commentService;
+
+    @ReadOperation
+    public CommentPageCacheStats stats() {
+        return commentPageCache.stats();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector Long newsId) {
+        commentService.evictByNewsId(newsId);
+    }
+}
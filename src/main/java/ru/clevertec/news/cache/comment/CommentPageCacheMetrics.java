@@ -0,0 +1,40 @@
+package ru.clevertec.news.cache.comment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Регистрирует метрики кэша страниц комментариев. Кэш находится в памяти процесса, поэтому метрики
+ * помечены tier=l1: у метрик cache.gets и cache.size всех кэшей сервиса один набор тегов.
+ */
+@Component
+@AllArgsConstructor
+public class CommentPageCacheMetrics implements MeterBinder {
+
+    private static final String CACHE_NAME = "comments";
+
+    private final CommentPageCache commentPageCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", commentPageCache, cache -> cache.stats().hits())
+                .tags("cache", CACHE_NAME, "tier", "l1", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", commentPageCache, cache -> cache.stats().staleHits())
+                .tags("cache", CACHE_NAME, "tier", "l1", "result", "stale")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", commentPageCache, cache -> cache.stats().misses())
+                .tags("cache", CACHE_NAME, "tier", "l1", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.refreshes", commentPageCache, cache -> cache.stats().refreshes())
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size", commentPageCache, cache -> cache.stats().size())
+                .tags("cache", CACHE_NAME, "tier", "l1")
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.clevertec.news.cache.comment;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Статистика обращений к кэшу страниц комментариев.
+ *
+ * @param hits      попадания в свежие записи
+ * @param staleHits попадания в устаревшие записи, отданные с фоновым обновлением
+ * @param misses    промахи, потребовавшие синхронной загрузки
+ * @param refreshes фоновые обновления устаревших записей
+ * @param size      количество записей
+ */
+public record CommentPageCacheStats(
+        long hits,
+        long staleHits,
+        long misses,
+        long refreshes,
+        int size
+) {
+
+    /**
+     * Доля запросов, обслуженных из кэша без ожидания микросервиса комментариев.
+     *
+     * @return hit ratio
+     */
+    @JsonProperty
+    public double hitRatio() {
+        var requests = hits + staleHits + misses;
+        return requests == 0 ? 0 : (double) (hits + staleHits) / requests;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.clevertec.news.cache.json;
+
+/**
+ * Сериализованная в JSON новость.
+ *
+ * @param json JSON новости в UTF-8
+ * @param gzip тот же JSON, сжатый gzip, или null, если JSON меньше порога сжатия
+ */
+public record NewsJson(
+        byte[] json,
+        byte[] gzip
+) {
+}
@@ -0,0 +1,90 @@
+package ru.clevertec.news.cache.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.cache.near.LocalCache;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш сериализованных в JSON новостей по id и версии новости.
+ * На попадании контроллер пишет готовые байты в ответ без преобразования и сериализации NewsDto,
+ * а для больших новостей - еще и без сжатия. Запись для новой версии новости создается заново,
+ * записи старых версий вытесняются по размеру и времени жизни.
+ */
+@Component
+public class NewsJsonCache {
+
+    private static final String SEPARATOR = ":";
+
+    private final LocalCache<NewsJson> cache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinSize;
+
+    public NewsJsonCache(ObjectMapper objectMapper,
+                         @Value("${cache.news-json.enabled:false}") boolean enabled,
+                         @Value("${cache.news-json.max-size:1000}") int maxSize,
+                         @Value("${cache.news-json.ttl:PT10M}") Duration ttl,
+                         @Value("${cache.news-json.gzip-min-size:1024}") int gzipMinSize) {
+        this.cache = new LocalCache<>(maxSize, ttl);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    /**
+     * Показывает, отдает ли контроллер новости из этого кэша.
+     *
+     * @return true, если кэш включен
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Возвращает сериализованную новость указанной версии, при промахе сериализует результат loader.
+     *
+     * @param version версия новости
+     * @param loader  загрузка новости
+     * @return сериализованная новость
+     */
+    public NewsJson get(NewsVersionDto version, Supplier<NewsDto> loader) {
+        var key = version.id() + SEPARATOR + version.version();
+        var cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var newsJson = serialize(loader.get());
+        cache.put(key, newsJson);
+        return newsJson;
+    }
+
+    private NewsJson serialize(NewsDto newsDto) {
+        try {
+            var json = objectMapper.writeValueAsBytes(newsDto);
+            return new NewsJson(json, json.length >= gzipMinSize ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize news " + newsDto.getId(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        var bytes = new ByteArrayOutputStream(json.length / 4);
+        try (var out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,127 @@
+package ru.clevertec.news.cache.near;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш в памяти процесса.
+ * При переполнении вытесняется запись, к которой дольше всего не обращались.
+ *
+ * @param <V> тип значений
+ */
+public class LocalCache<V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    public LocalCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > LocalCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Возвращает значение по ключу, если запись есть и не истекла.
+     *
+     * @param key ключ
+     * @return значение или null
+     */
+    public V get(String key) {
+        lock.lock();
+        try {
+            var entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраняет значение по ключу.
+     *
+     * @param key   ключ
+     * @param value значение
+     */
+    public void put(String key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет значение по ключу.
+     *
+     * @param key ключ
+     */
+    public void remove(String key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет значения, ключи которых удовлетворяют условию.
+     *
+     * @param keyFilter условие на ключ
+     */
+    public void removeIf(Predicate<String> keyFilter) {
+        lock.lock();
+        try {
+            entries.keySet().removeIf(keyFilter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все значения.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество записей, включая еще не удаленные истекшие.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
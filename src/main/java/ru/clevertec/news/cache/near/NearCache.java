@@ -0,0 +1,334 @@
+package ru.clevertec.news.cache.near;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Двухуровневый кэш: локальный кэш процесса (L1) перед распределенным кэшем (L2).
+ * Чтение сначала идет в L1, при промахе - в L2, найденное значение копируется в L1.
+ * Запись и удаление выполняются в обоих уровнях и дополнительно рассылаются
+ * остальным экземплярам сервиса, чтобы они сбросили свой L1 и не отдавали прежнее значение.
+ * <p>
+ * Промах загружается через загрузчик: переданный в {@link #get(Object, Callable)} или, для {@link #get(Object)},
+ * которым читает @Cacheable без sync, загрузчик кэша (loader). Одновременные промахи по одному ключу разделяют
+ * одну загрузку (ConcurrentHashMap загрузок по ключу), а промахи по разным ключам загружаются параллельно:
+ * загрузка строится на delegate.get и delegate.put, а не на delegate.get(key, loader), который у RedisCache
+ * выполняет все загрузки кэша под одним synchronized. Без загрузчика get(Object) при промахе возвращает null.
+ * <p>
+ * Если задан {@link RefreshAhead}, значение, прочитанное в конце времени жизни записи, загружается заново
+ * тем же загрузчиком в фоне и сохраняется в оба уровня; читатель получает текущее значение без ожидания.
+ */
+public class NearCache implements Cache {
+
+    private final Cache delegate;
+    private final LocalCache<ValueWrapper> local;
+    private final NearCacheInvalidationPublisher publisher;
+    private final RefreshAhead refreshAhead;
+    private final Function<Object, ?> loader;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearCache(Cache delegate, LocalCache<ValueWrapper> local, NearCacheInvalidationPublisher publisher) {
+        this(delegate, local, publisher, null);
+    }
+
+    public NearCache(Cache delegate, LocalCache<ValueWrapper> local, NearCacheInvalidationPublisher publisher,
+                     RefreshAhead refreshAhead) {
+        this(delegate, local, publisher, refreshAhead, null);
+    }
+
+    /**
+     * @param loader загрузчик значения по ключу для {@link #get(Object)}; null - промах возвращает null
+     */
+    public NearCache(Cache delegate, LocalCache<ValueWrapper> local, NearCacheInvalidationPublisher publisher,
+                     RefreshAhead refreshAhead, Function<Object, ?> loader) {
+        this.delegate = delegate;
+        this.local = local;
+        this.publisher = publisher;
+        this.refreshAhead = refreshAhead;
+        this.loader = loader;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        var valueLoader = loader == null ? null : (Callable<Object>) () -> loader.apply(key);
+        var wrapper = cached(key, valueLoader);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        if (valueLoader == null) {
+            misses.increment();
+            return null;
+        }
+        try {
+            return new SimpleValueWrapper(load(key, valueLoader));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        var wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        var value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var wrapper = cached(key, valueLoader);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        try {
+            return (T) load(key, valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        var localKey = String.valueOf(key);
+        delegate.put(key, value);
+        local.put(localKey, new SimpleValueWrapper(value));
+        written(key);
+        publisher.publish(getName(), localKey);
+    }
+
+    /**
+     * Возвращает значения по набору ключей: сначала из L1, оставшиеся ключи одним обращением к L2
+     * через l2Loader. Найденные в L2 значения копируются в L1.
+     *
+     * @param keys     ключи
+     * @param l2Loader пакетное чтение L2, возвращает найденные значения по ключу
+     * @return найденные значения по ключу
+     */
+    public Map<Object, Object> getAll(List<?> keys, Function<List<Object>, Map<Object, Object>> l2Loader) {
+        var found = new HashMap<>();
+        var remaining = new ArrayList<>();
+        for (var key : keys) {
+            var wrapper = local.get(String.valueOf(key));
+            if (wrapper != null) {
+                l1Hits.increment();
+                found.put(key, wrapper.get());
+            } else {
+                remaining.add(key);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return found;
+        }
+        var loaded = l2Loader.apply(remaining);
+        l2Hits.add(loaded.size());
+        misses.add(remaining.size() - loaded.size());
+        loaded.forEach((key, value) -> local.put(String.valueOf(key), new SimpleValueWrapper(value)));
+        found.putAll(loaded);
+        return found;
+    }
+
+    /**
+     * Сохраняет значения в L2 одним обращением через l2Writer и в L1.
+     * Остальным экземплярам сервиса рассылается инвалидация каждого ключа.
+     *
+     * @param values   значения по ключу
+     * @param l2Writer пакетная запись в L2
+     */
+    public void putAll(Map<?, ?> values, Consumer<Map<?, ?>> l2Writer) {
+        l2Writer.accept(values);
+        values.forEach((key, value) -> {
+            var localKey = String.valueOf(key);
+            local.put(localKey, new SimpleValueWrapper(value));
+            written(key);
+            publisher.publish(getName(), localKey);
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        var localKey = String.valueOf(key);
+        delegate.evict(key);
+        local.remove(localKey);
+        if (refreshAhead != null) {
+            refreshAhead.forget(key);
+        }
+        evictions.increment();
+        publisher.publish(getName(), localKey);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        local.clear();
+        if (refreshAhead != null) {
+            refreshAhead.clear();
+        }
+        publisher.publish(getName(), NearCacheInvalidationPublisher.ALL_KEYS);
+    }
+
+    /**
+     * Сбрасывает запись локального кэша по сообщению от другого экземпляра сервиса.
+     * Время сохранения записи тоже забывается: запись сохранил другой экземпляр, и при следующем чтении
+     * {@link RefreshAhead} определит ее возраст заново.
+     *
+     * @param key ключ или {@link NearCacheInvalidationPublisher#ALL_KEYS}
+     */
+    public void invalidateLocal(String key) {
+        if (NearCacheInvalidationPublisher.ALL_KEYS.equals(key)) {
+            local.clear();
+            if (refreshAhead != null) {
+                refreshAhead.clear();
+            }
+        } else {
+            local.remove(key);
+            if (refreshAhead != null) {
+                refreshAhead.forget(key);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество заблаговременных обновлений записей.
+     *
+     * @return количество обновлений
+     */
+    public long refreshes() {
+        return refreshAhead == null ? 0 : refreshAhead.refreshes();
+    }
+
+    /**
+     * Читает значение из L1, затем из L2 с копированием в L1. Если значение найдено и прочитано в конце
+     * времени жизни записи, запускает ее фоновое обновление через valueLoader.
+     *
+     * @param key         ключ
+     * @param valueLoader загрузчик для обновления или null
+     * @return найденное значение или null
+     */
+    private ValueWrapper cached(Object key, Callable<?> valueLoader) {
+        var localKey = String.valueOf(key);
+        var wrapper = local.get(localKey);
+        if (wrapper != null) {
+            l1Hits.increment();
+        } else {
+            wrapper = delegate.get(key);
+            if (wrapper == null) {
+                return null;
+            }
+            l2Hits.increment();
+            local.put(localKey, new SimpleValueWrapper(wrapper.get()));
+        }
+        if (valueLoader != null) {
+            refreshIfDue(key, valueLoader);
+        }
+        return wrapper;
+    }
+
+    /**
+     * Загружает значение при промахе и сохраняет его в оба уровня. Одновременно по ключу выполняется одна загрузка,
+     * остальные потоки ждут ее результат; блокируется только ключ, а не весь кэш. Перед загрузкой L2 читается
+     * еще раз: значение мог сохранить поток, загрузка которого только что завершилась.
+     *
+     * @param key         ключ
+     * @param valueLoader загрузчик
+     * @return загруженное значение
+     * @throws Exception исключение загрузчика
+     */
+    private Object load(Object key, Callable<?> valueLoader) throws Exception {
+        var load = new CompletableFuture<Object>();
+        var inFlightLoad = inFlight.putIfAbsent(key, load);
+        if (inFlightLoad != null) {
+            l2Hits.increment();
+            return await(inFlightLoad);
+        }
+        try {
+            Object value;
+            var wrapper = delegate.get(key);
+            if (wrapper != null) {
+                l2Hits.increment();
+                value = wrapper.get();
+            } else {
+                misses.increment();
+                value = valueLoader.call();
+                delegate.put(key, value);
+                written(key);
+            }
+            local.put(String.valueOf(key), new SimpleValueWrapper(value));
+            load.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> load) throws Exception {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private void written(Object key) {
+        if (refreshAhead != null) {
+            refreshAhead.written(key);
+        }
+    }
+
+    private void refreshIfDue(Object key, Callable<?> valueLoader) {
+        if (refreshAhead != null) {
+            refreshAhead.refreshIfDue(key, valueLoader, this::put);
+        }
+    }
+
+    /**
+     * Возвращает статистику обращений по уровням.
+     *
+     * @return статистика кэша
+     */
+    public NearCacheStats stats() {
+        return new NearCacheStats(l1Hits.sum(), l2Hits.sum(), misses.sum(), evictions.sum(), local.size());
+    }
+}
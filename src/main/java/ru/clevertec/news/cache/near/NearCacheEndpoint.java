@@ -0,0 +1,29 @@
+package ru.clevertec.news.cache.near;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint со статистикой попаданий по уровням двухуровневых кэшей.
+ */
+@Component
+@Profile("!dev")
+@AllArgsConstructor
+@Endpoint(id = "nearcache")
+public class NearCacheEndpoint {
+
+    private final CacheManager cacheManager;
+
+    @ReadOperation
+    public Map<String, NearCacheStats> stats() {
+        return cacheManager instanceof NearCacheManager nearCacheManager
+                ? nearCacheManager.stats()
+                : Map.of();
+    }
+}
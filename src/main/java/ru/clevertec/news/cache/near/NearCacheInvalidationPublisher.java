@@ -0,0 +1,20 @@
+package ru.clevertec.news.cache.near;
+
+/**
+ * Рассылает другим экземплярам сервиса сообщения об инвалидации локальных кэшей.
+ */
+public interface NearCacheInvalidationPublisher {
+
+    /**
+     * Ключ, означающий очистку всего кэша.
+     */
+    String ALL_KEYS = "*";
+
+    /**
+     * Сообщает об удалении ключа из кэша.
+     *
+     * @param cacheName имя кэша
+     * @param key       ключ или {@link #ALL_KEYS}
+     */
+    void publish(String cacheName, String key);
+}
@@ -0,0 +1,116 @@
+package ru.clevertec.news.cache.near;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Менеджер кэшей, который оборачивает выбранные кэши делегата в {@link NearCache}.
+ * Остальные кэши возвращаются без изменений.
+ */
+public class NearCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Set<String> nearCacheNames;
+    private final int maxSize;
+    private final Duration ttl;
+    private final NearCacheInvalidationPublisher publisher;
+    private final Map<String, RefreshAhead> refreshAhead;
+    private final Map<String, Function<Object, ?>> loaders;
+    private final Map<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager delegate, Set<String> nearCacheNames, int maxSize, Duration ttl,
+                            NearCacheInvalidationPublisher publisher) {
+        this(delegate, nearCacheNames, maxSize, ttl, publisher, Map.of());
+    }
+
+    /**
+     * @param refreshAhead заблаговременное обновление записей по имени кэша
+     */
+    public NearCacheManager(CacheManager delegate, Set<String> nearCacheNames, int maxSize, Duration ttl,
+                            NearCacheInvalidationPublisher publisher, Map<String, RefreshAhead> refreshAhead) {
+        this(delegate, nearCacheNames, maxSize, ttl, publisher, refreshAhead, Map.of());
+    }
+
+    /**
+     * @param refreshAhead заблаговременное обновление записей по имени кэша
+     * @param loaders      загрузчики значений по ключу по имени кэша, см. {@link NearCache#get(Object)}
+     */
+    public NearCacheManager(CacheManager delegate, Set<String> nearCacheNames, int maxSize, Duration ttl,
+                            NearCacheInvalidationPublisher publisher, Map<String, RefreshAhead> refreshAhead,
+                            Map<String, Function<Object, ?>> loaders) {
+        this.delegate = delegate;
+        this.nearCacheNames = nearCacheNames;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.publisher = publisher;
+        this.refreshAhead = refreshAhead;
+        this.loaders = loaders;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return delegate.getCache(name);
+        }
+        return nearCaches.computeIfAbsent(name, cacheName -> {
+            var cache = delegate.getCache(cacheName);
+            return cache == null ? null : new NearCache(cache, new LocalCache<>(maxSize, ttl), publisher,
+                    refreshAhead.get(cacheName), loaders.get(cacheName));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Возвращает менеджер распределенных кэшей.
+     *
+     * @return менеджер кэшей второго уровня
+     */
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Сбрасывает запись локального кэша по сообщению от другого экземпляра сервиса.
+     *
+     * @param cacheName имя кэша
+     * @param key       ключ или {@link NearCacheInvalidationPublisher#ALL_KEYS}
+     */
+    public void invalidateLocal(String cacheName, String key) {
+        var cache = nearCaches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+
+    /**
+     * Возвращает созданные двухуровневые кэши.
+     *
+     * @return двухуровневые кэши по имени
+     */
+    public Map<String, NearCache> getNearCaches() {
+        return Map.copyOf(nearCaches);
+    }
+
+    /**
+     * Возвращает статистику по всем двухуровневым кэшам.
+     *
+     * @return статистика по имени кэша
+     */
+    public Map<String, NearCacheStats> stats() {
+        return nearCaches.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().stats()));
+    }
+}
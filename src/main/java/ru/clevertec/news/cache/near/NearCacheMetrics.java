@@ -0,0 +1,43 @@
+package ru.clevertec.news.cache.near;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Регистрирует метрики двухуровневых кэшей: попадания и промахи по уровням, удаления, заблаговременные
+ * обновления и размер L1.
+ */
+public class NearCacheMetrics implements MeterBinder {
+
+    private final NearCacheManager cacheManager;
+
+    public NearCacheMetrics(NearCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheManager.getNearCaches().forEach((name, cache) -> {
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().l1Hits())
+                    .tags("cache", name, "tier", "l1", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().l2Hits())
+                    .tags("cache", name, "tier", "l2", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().misses())
+                    .tags("cache", name, "tier", "l2", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictions())
+                    .tags("cache", name)
+                    .register(registry);
+            FunctionCounter.builder("cache.refreshes", cache, NearCache::refreshes)
+                    .tags("cache", name)
+                    .register(registry);
+            Gauge.builder("cache.size", cache, c -> c.stats().l1Size())
+                    .tags("cache", name, "tier", "l1")
+                    .register(registry);
+        });
+    }
+}
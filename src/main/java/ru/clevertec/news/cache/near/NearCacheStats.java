@@ -0,0 +1,43 @@
+package ru.clevertec.news.cache.near;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Статистика обращений к двухуровневому кэшу.
+ *
+ * @param l1Hits    попадания в локальный кэш
+ * @param l2Hits    попадания в распределенный кэш
+ * @param misses    промахи обоих уровней
+ * @param evictions удаления ключей
+ * @param l1Size    количество записей в локальном кэше
+ */
+public record NearCacheStats(
+        long l1Hits,
+        long l2Hits,
+        long misses,
+        long evictions,
+        int l1Size
+) {
+
+    /**
+     * Доля запросов, обслуженных локальным кэшем.
+     *
+     * @return hit ratio первого уровня
+     */
+    @JsonProperty
+    public double l1HitRatio() {
+        var requests = l1Hits + l2Hits + misses;
+        return requests == 0 ? 0 : (double) l1Hits / requests;
+    }
+
+    /**
+     * Доля промахов локального кэша, обслуженных распределенным кэшем.
+     *
+     * @return hit ratio второго уровня
+     */
+    @JsonProperty
+    public double l2HitRatio() {
+        var requests = l2Hits + misses;
+        return requests == 0 ? 0 : (double) l2Hits / requests;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.clevertec.news.cache.near;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Рассылка и прием инвалидаций локальных кэшей через Redis pub/sub.
+ * Сообщение имеет вид {@code instanceId|cacheName|key}; собственные сообщения экземпляр игнорирует,
+ * так как свой локальный кэш он уже сбросил.
+ */
+@Slf4j
+public class RedisNearCacheInvalidation implements NearCacheInvalidationPublisher, MessageListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private NearCacheManager cacheManager;
+
+    public RedisNearCacheInvalidation(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * Устанавливает менеджер кэшей, локальные кэши которого сбрасываются по сообщениям.
+     *
+     * @param cacheManager менеджер двухуровневых кэшей
+     */
+    public void setCacheManager(NearCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        redisTemplate.convertAndSend(channel, String.join(SEPARATOR, instanceId, cacheName, key));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        var parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || instanceId.equals(parts[0]) || cacheManager == null) {
+            return;
+        }
+        log.debug("Near cache invalidation: cache " + parts[1] + ", key " + parts[2]);
+        cacheManager.invalidateLocal(parts[1], parts[2]);
+    }
+}
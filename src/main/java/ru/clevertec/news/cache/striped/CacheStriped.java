@@ -0,0 +1,259 @@
+package ru.clevertec.news.cache.striped;
+
+import ru.clevertec.news.cache.Cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Кэш для высокой конкуренции потоков с ключами long.
+ * <p>
+ * Записи разбиты на сегменты по хэшу ключа, у каждого сегмента своя {@link StampedLock}:
+ * чтение идет без блокировки (оптимистичное чтение с проверкой штампа), запись блокирует только
+ * свой сегмент. Внутри сегмента - открытая адресация по массиву примитивных long, поэтому ключи
+ * не упаковываются в Long и не создаются узлы на каждую запись.
+ * <p>
+ * При заполнении сегмента вытесняется давно не читанная запись из случайной выборки
+ * (приближенный LRU), а новый ключ попадает в кэш, только если по {@link FrequencySketch}
+ * к нему обращались не реже, чем к вытесняемому (TinyLFU). При равенстве частот побеждает новый
+ * ключ - это заменяет окно недавних записей W-TinyLFU.
+ *
+ * @param <V> тип значений
+ */
+public class CacheStriped<V> implements Cache<Long, V> {
+
+    private static final int DEFAULT_CAPACITY = 100;
+    private static final int MAX_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+    private static final int SAMPLE_SIZE = 8;
+
+    private volatile Stripe<V>[] stripes;
+    private volatile FrequencySketch sketch;
+
+    public CacheStriped() {
+        capacity(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public V get(Long key) {
+        int hash = spread(key);
+        sketch.increment(hash);
+        return stripeFor(hash).get(key, hash);
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        int hash = spread(key);
+        var stripe = stripeFor(hash);
+        if (value == null) {
+            stripe.remove(key, hash);
+            return;
+        }
+        var currentSketch = sketch;
+        currentSketch.increment(hash);
+        stripe.put(key, hash, value, currentSketch);
+    }
+
+    @Override
+    public void remove(Long key) {
+        int hash = spread(key);
+        stripeFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Задает вместимость кэша. Текущие записи при этом удаляются.
+     *
+     * @param capacity максимальное количество записей
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void capacity(int capacity) {
+        int total = Math.max(capacity, 1);
+        int count = Math.min(MAX_STRIPES, Integer.highestOneBit(total));
+        var newStripes = (Stripe<V>[]) new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            newStripes[i] = new Stripe<>(total / count + (i < total % count ? 1 : 0));
+        }
+        sketch = new FrequencySketch(total);
+        stripes = newStripes;
+    }
+
+    /**
+     * Возвращает количество записей в кэше.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Выбирает сегмент по старшим битам хэша; слот внутри сегмента берется из младших битов.
+     */
+    private Stripe<V> stripeFor(int hash) {
+        var current = stripes;
+        return current[(int) (((hash & 0xFFFFFFFFL) * current.length) >>> 32)];
+    }
+
+    private static int spread(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (key ^ (key >>> 33));
+    }
+
+    /**
+     * Сегмент кэша: таблица с линейным пробированием, заполненная не более чем наполовину.
+     * Пустой слот - слот с values[i] == null; удаление сдвигает следующие записи назад,
+     * поэтому пометки удаленных слотов не нужны.
+     */
+    private static final class Stripe<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private final long[] keys;
+        private final Object[] values;
+        private final long[] accessed;
+        private final int mask;
+        private final int capacity;
+        private int size;
+        private long clock;
+
+        Stripe(int capacity) {
+            int length = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+            this.keys = new long[length];
+            this.values = new Object[length];
+            this.accessed = new long[length];
+            this.mask = length - 1;
+            this.capacity = capacity;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            int index = indexOf(key, hash);
+            Object value = index >= 0 ? values[index] : null;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    index = indexOf(key, hash);
+                    value = index >= 0 ? values[index] : null;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (index >= 0) {
+                // Время доступа пишется без блокировки: гонка только огрубляет выбор вытесняемой записи.
+                accessed[index] = ++clock;
+            }
+            return (V) value;
+        }
+
+        void put(long key, int hash, V value, FrequencySketch sketch) {
+            long stamp = lock.writeLock();
+            try {
+                int index = indexOf(key, hash);
+                if (index >= 0) {
+                    values[index] = value;
+                    accessed[index] = ++clock;
+                    return;
+                }
+                if (size >= capacity) {
+                    int victim = sampleVictim();
+                    if (sketch.frequency(hash) < sketch.frequency(spread(keys[victim]))) {
+                        return;
+                    }
+                    removeAt(victim);
+                }
+                int slot = hash & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                accessed[slot] = ++clock;
+                values[slot] = value;
+                size++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                int index = indexOf(key, hash);
+                if (index >= 0) {
+                    removeAt(index);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Ищет слот ключа. Число проб ограничено длиной таблицы, чтобы оптимистичное чтение
+         * не зациклилось на таблице, которую в этот момент меняет другой поток.
+         */
+        private int indexOf(long key, int hash) {
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (values[slot] == null) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int sampleVictim() {
+            int slot = ThreadLocalRandom.current().nextInt(mask + 1);
+            int victim = -1;
+            for (int sampled = 0; sampled < SAMPLE_SIZE && sampled < size; slot = (slot + 1) & mask) {
+                if (values[slot] != null) {
+                    if (victim < 0 || accessed[slot] < accessed[victim]) {
+                        victim = slot;
+                    }
+                    sampled++;
+                }
+            }
+            return victim;
+        }
+
+        private void removeAt(int index) {
+            int hole = index;
+            int next = index;
+            while (true) {
+                values[hole] = null;
+                while (true) {
+                    next = (next + 1) & mask;
+                    if (values[next] == null) {
+                        size--;
+                        return;
+                    }
+                    int home = spread(keys[next]) & mask;
+                    boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                    if (!stays) {
+                        break;
+                    }
+                }
+                keys[hole] = keys[next];
+                accessed[hole] = accessed[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+    }
+}
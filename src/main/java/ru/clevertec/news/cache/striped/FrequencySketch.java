@@ -0,0 +1,78 @@
+package ru.clevertec.news.cache.striped;
+
+/**
+ * Приблизительный счетчик частоты обращений к ключам (count-min sketch) с 4-битными счетчиками
+ * по 16 штук в каждом long. Когда число увеличений достигает 10 * capacity, все счетчики делятся
+ * пополам, поэтому оценка отражает недавнюю популярность ключа, а не накопленную за все время.
+ * <p>
+ * Счетчики обновляются без синхронизации: при гонке часть увеличений теряется, что для оценки
+ * популярности допустимо и дешевле любой блокировки.
+ */
+class FrequencySketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb7ee3a7b, 0x6c6d5a49, 0x2d5c1f3b};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * Math.max(capacity, 16);
+    }
+
+    /**
+     * Возвращает оценку частоты обращений к ключу, от 0 до 15.
+     *
+     * @param hash хэш ключа
+     * @return частота обращений
+     */
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int h = rehash(hash, i);
+            int offset = (h >>> 28) << 2;
+            frequency = Math.min(frequency, (int) ((table[h & tableMask] >>> offset) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Учитывает обращение к ключу.
+     *
+     * @param hash хэш ключа
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int h = rehash(hash, i);
+            int index = h & tableMask;
+            int offset = (h >>> 28) << 2;
+            long value = table[index];
+            if (((value >>> offset) & MAX_COUNT) < MAX_COUNT) {
+                table[index] = value + (1L << offset);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private static int rehash(int hash, int i) {
+        int h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 16);
+    }
+}
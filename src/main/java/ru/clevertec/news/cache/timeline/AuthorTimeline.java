@@ -0,0 +1,42 @@
+package ru.clevertec.news.cache.timeline;
+
+import ru.clevertec.news.model.dto.NewsCursor;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Начало ленты новостей автора: позиции новостей в порядке time desc, id desc.
+ *
+ * @param entries  позиции новостей
+ * @param complete true, если в entries все новости автора, а не только первые
+ */
+public record AuthorTimeline(
+        List<NewsCursor> entries,
+        boolean complete
+) {
+
+    /**
+     * Порядок ленты: сначала новые, при равном времени - с большим id.
+     */
+    public static final Comparator<NewsCursor> ORDER = Comparator.comparing(NewsCursor::time)
+            .thenComparing(NewsCursor::id)
+            .reversed();
+
+    /**
+     * Возвращает не больше limit позиций, идущих в ленте после курсора.
+     *
+     * @param cursor позиция последней выданной новости или null для начала ленты
+     * @param limit  максимальное количество позиций
+     * @return позиции новостей после курсора
+     */
+    public List<NewsCursor> after(NewsCursor cursor, int limit) {
+        var from = 0;
+        if (cursor != null) {
+            var index = Collections.binarySearch(entries, cursor, ORDER);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return entries.subList(from, Math.min(entries.size(), from + limit));
+    }
+}
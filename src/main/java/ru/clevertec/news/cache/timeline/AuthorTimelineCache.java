@@ -0,0 +1,206 @@
+package ru.clevertec.news.cache.timeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.model.dto.NewsCursor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш лент новостей авторов: для каждого автора хранится ограниченное начало ленты - позиции (time, id)
+ * его последних новостей. Создание и удаление новости не сбрасывают ленту, а вставляют или удаляют
+ * в ней одну позицию. Для удаления по id новости ведется обратный индекс id новости - автор
+ * по закэшированным лентам. При переполнении вытесняется лента, к которой дольше всего не обращались.
+ * Кэш локальный для процесса: изменения, сделанные другими экземплярами сервиса, видны после истечения ttl.
+ */
+@Component
+public class AuthorTimelineCache {
+
+    private final int maxItems;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Long> authors = new HashMap<>();
+    private final LinkedHashMap<Long, Entry> timelines;
+
+    /**
+     * Счетчик изменений лент. Лента, загруженная из БД, не кладется в кэш, если за время загрузки
+     * были изменения: иначе созданная в это время новость потерялась бы до истечения ttl.
+     */
+    private long changes;
+
+    public AuthorTimelineCache(@Value("${cache.timeline.max-authors:10000}") int maxAuthors,
+                               @Value("${cache.timeline.max-items:200}") int maxItems,
+                               @Value("${cache.timeline.ttl:PT10M}") Duration ttl) {
+        this.maxItems = maxItems;
+        this.ttlNanos = ttl.toNanos();
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= maxAuthors) {
+                    return false;
+                }
+                unindex(eldest.getValue().timeline());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Возвращает максимальное количество позиций в ленте автора.
+     *
+     * @return максимальное количество позиций
+     */
+    public int maxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Возвращает ленту автора, если она есть и не истекла.
+     *
+     * @param userId id автора
+     * @return лента или null
+     */
+    public AuthorTimeline get(Long userId) {
+        lock.lock();
+        try {
+            var entry = timelines.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                unindex(timelines.remove(userId).timeline());
+                return null;
+            }
+            return entry.timeline();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает отметку, которую нужно получить до загрузки ленты из БД и передать в {@link #put}.
+     *
+     * @return отметка изменений
+     */
+    public long stamp() {
+        lock.lock();
+        try {
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраняет загруженную из БД ленту автора, если после stamp ленты не менялись.
+     *
+     * @param userId   id автора
+     * @param timeline лента автора
+     * @param stamp    отметка, полученная до загрузки ленты
+     */
+    public void put(Long userId, AuthorTimeline timeline, long stamp) {
+        lock.lock();
+        try {
+            if (stamp != changes) {
+                return;
+            }
+            var previous = timelines.remove(userId);
+            if (previous != null) {
+                unindex(previous.timeline());
+            }
+            store(userId, timeline);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Добавляет новость в ленту автора, если лента есть в кэше. Новость старше закэшированного
+     * начала неполной ленты не добавляется: между ними могут быть новости, которых нет в кэше.
+     * Если лента переполняется, из нее удаляется самая старая позиция.
+     *
+     * @param userId id автора
+     * @param entry  позиция новости
+     */
+    public void add(Long userId, NewsCursor entry) {
+        lock.lock();
+        try {
+            changes++;
+            var current = userId == null ? null : timelines.get(userId);
+            if (current == null) {
+                return;
+            }
+            var entries = new ArrayList<>(current.timeline().entries());
+            var index = Collections.binarySearch(entries, entry, AuthorTimeline.ORDER);
+            if (index >= 0 || -index - 1 == entries.size() && !current.timeline().complete()) {
+                return;
+            }
+            entries.add(-index - 1, entry);
+            var complete = current.timeline().complete();
+            if (entries.size() > maxItems) {
+                authors.remove(entries.remove(entries.size() - 1).id());
+                complete = false;
+            }
+            authors.put(entry.id(), userId);
+            timelines.put(userId, new Entry(new AuthorTimeline(List.copyOf(entries), complete), current.expiresAt()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет новость из ленты ее автора, если лента есть в кэше.
+     *
+     * @param newsId id новости
+     */
+    public void remove(Long newsId) {
+        lock.lock();
+        try {
+            changes++;
+            var userId = authors.remove(newsId);
+            var current = userId == null ? null : timelines.get(userId);
+            if (current == null) {
+                return;
+            }
+            var entries = current.timeline().entries().stream()
+                    .filter(entry -> !entry.id().equals(newsId))
+                    .toList();
+            timelines.put(userId, new Entry(new AuthorTimeline(entries, current.timeline().complete()), current.expiresAt()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество закэшированных лент.
+     *
+     * @return количество лент
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return timelines.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(Long userId, AuthorTimeline timeline) {
+        timeline.entries().forEach(entry -> authors.put(entry.id(), userId));
+        timelines.put(userId, new Entry(timeline, System.nanoTime() + ttlNanos));
+    }
+
+    private void unindex(AuthorTimeline timeline) {
+        timeline.entries().forEach(entry -> authors.remove(entry.id()));
+    }
+
+    private record Entry(AuthorTimeline timeline, long expiresAt) {
+    }
+}
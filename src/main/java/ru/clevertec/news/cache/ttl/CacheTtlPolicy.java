@@ -0,0 +1,77 @@
+package ru.clevertec.news.cache.ttl;
+
+import java.time.Duration;
+
+/**
+ * Время жизни записей кэша с разбросом: ttl каждого ключа отличается от базового на величину
+ * от -jitter до +jitter его доли, поэтому записи, сохраненные одновременно, истекают в разное время,
+ * а не все разом. Разброс вычисляется по хэшу ключа, поэтому все экземпляры сервиса и все уровни
+ * кэша получают для ключа один и тот же ttl.
+ */
+public class CacheTtlPolicy {
+
+    private final long ttlNanos;
+    private final double jitter;
+    private final double refreshAhead;
+
+    /**
+     * @param ttl          базовое время жизни записи; 0 - записи не истекают
+     * @param jitter       разброс времени жизни, доля от 0 до 1
+     * @param refreshAhead доля времени жизни в его конце, в течение которой запись обновляется заранее, от 0 до 1
+     */
+    public CacheTtlPolicy(Duration ttl, double jitter, double refreshAhead) {
+        this.ttlNanos = ttl.toNanos();
+        this.jitter = Math.max(0, Math.min(jitter, 1));
+        this.refreshAhead = Math.max(0, Math.min(refreshAhead, 1));
+    }
+
+    /**
+     * Проверяет, истекают ли записи.
+     *
+     * @return true, если время жизни задано
+     */
+    public boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    /**
+     * Возвращает время жизни записи.
+     *
+     * @param key ключ
+     * @return время жизни или 0, если записи не истекают
+     */
+    public Duration ttl(Object key) {
+        if (!isEnabled()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) (ttlNanos * (1 + jitter * spread(key))));
+    }
+
+    /**
+     * Возвращает возраст записи, начиная с которого при чтении запускается ее фоновое обновление.
+     *
+     * @param key ключ
+     * @return возраст записи
+     */
+    public Duration refreshAfter(Object key) {
+        return Duration.ofNanos((long) (ttl(key).toNanos() * (1 - refreshAhead)));
+    }
+
+    /**
+     * Возвращает наибольшее время жизни записи с учетом разброса.
+     *
+     * @return время жизни
+     */
+    public Duration maxTtl() {
+        return Duration.ofNanos((long) (ttlNanos * (1 + jitter)));
+    }
+
+    /**
+     * Равномерно распределенное по ключам число от -1 до 1.
+     */
+    private static double spread(Object key) {
+        int h = String.valueOf(key).hashCode() * 0x9e3779b9;
+        h ^= h >>> 16;
+        return (h & Integer.MAX_VALUE) / (double) Integer.MAX_VALUE * 2 - 1;
+    }
+}
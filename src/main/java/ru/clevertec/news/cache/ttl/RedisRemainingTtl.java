@@ -0,0 +1,53 @@
+package ru.clevertec.news.cache.ttl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Оставшееся время жизни записи кэша в Redis (команда PTTL). Ключ формируется так же, как в RedisCache.
+ * Используется {@link RefreshAhead}, чтобы узнать возраст записи, сохраненной другим экземпляром сервиса.
+ */
+@Slf4j
+public class RedisRemainingTtl implements Function<Object, Duration> {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration configuration;
+    private final String cacheName;
+
+    public RedisRemainingTtl(RedisConnectionFactory connectionFactory, RedisCacheConfiguration configuration,
+                             String cacheName) {
+        this.connectionFactory = connectionFactory;
+        this.configuration = configuration;
+        this.cacheName = cacheName;
+    }
+
+    /**
+     * Возвращает оставшееся время жизни записи.
+     *
+     * @param key ключ кэша
+     * @return оставшееся время или null, если записи нет, она не истекает или Redis недоступен
+     */
+    @Override
+    public Duration apply(Object key) {
+        Long millis;
+        try (var connection = connectionFactory.getConnection()) {
+            millis = connection.keyCommands().pTtl(key(key));
+        } catch (RuntimeException e) {
+            log.debug("RedisRemainingTtl: PTTL of " + key + " failed: " + e.getMessage());
+            return null;
+        }
+        return millis == null || millis < 0 ? null : Duration.ofMillis(millis);
+    }
+
+    private byte[] key(Object key) {
+        var buffer = configuration.getKeySerializationPair().write(configuration.getKeyPrefixFor(cacheName) + key);
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.clevertec.news.cache.ttl;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.clevertec.news.cache.near.LocalCache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Заблаговременное обновление записей кэша: помнит, когда запись была сохранена этим экземпляром сервиса,
+ * и при чтении записи в последние refresh-ahead ее времени жизни ({@link CacheTtlPolicy}) один раз
+ * загружает ее заново в фоне. Читатель получает текущее значение сразу и не ждет загрузки.
+ * <p>
+ * Время сохранения хранится для не более чем maxSize ключей. Для записи, время сохранения которой неизвестно
+ * (сохранена другим экземпляром или давно не читалась), оно вычисляется при первом чтении по оставшемуся
+ * времени жизни записи в общем хранилище (remainingTtl, например PTTL в Redis): ttl - оставшееся время.
+ * Если оставшееся время неизвестно, временем сохранения считается время первого чтения.
+ */
+@Slf4j
+public class RefreshAhead {
+
+    /**
+     * Во сколько раз время хранения отметок о сохранении больше наибольшего времени жизни записи.
+     */
+    private static final int WRITTEN_AT_TTL_FACTOR = 10;
+
+    private final CacheTtlPolicy policy;
+    private final Executor executor;
+    private final Function<Object, Duration> remainingTtl;
+    private final LocalCache<Long> writtenAt;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder refreshes = new LongAdder();
+
+    public RefreshAhead(CacheTtlPolicy policy, int maxSize, Executor executor) {
+        this(policy, maxSize, executor, key -> null);
+    }
+
+    /**
+     * @param policy       время жизни записей
+     * @param maxSize      для скольких ключей хранить время сохранения
+     * @param executor     исполнитель фоновых обновлений
+     * @param remainingTtl оставшееся время жизни записи в общем хранилище или null, если оно неизвестно
+     */
+    public RefreshAhead(CacheTtlPolicy policy, int maxSize, Executor executor, Function<Object, Duration> remainingTtl) {
+        this.policy = policy;
+        this.executor = executor;
+        this.remainingTtl = remainingTtl;
+        this.writtenAt = new LocalCache<>(maxSize, policy.maxTtl().multipliedBy(WRITTEN_AT_TTL_FACTOR));
+    }
+
+    /**
+     * Отмечает, что запись сохранена.
+     *
+     * @param key ключ
+     */
+    public void written(Object key) {
+        writtenAt.put(String.valueOf(key), System.nanoTime());
+    }
+
+    /**
+     * Забывает время сохранения записи, например после ее удаления из кэша.
+     *
+     * @param key ключ
+     */
+    public void forget(Object key) {
+        writtenAt.remove(String.valueOf(key));
+    }
+
+    /**
+     * Забывает время сохранения всех записей.
+     */
+    public void clear() {
+        writtenAt.clear();
+    }
+
+    /**
+     * Проверяет, истекло ли время жизни записи. Для кэшей, которые сами не удаляют истекшие записи.
+     *
+     * @param key ключ
+     * @return true, если запись сохранена раньше, чем ttl назад
+     */
+    public boolean isExpired(Object key) {
+        var at = writtenAt.get(String.valueOf(key));
+        return at != null && System.nanoTime() - at >= policy.ttl(key).toNanos();
+    }
+
+    /**
+     * Если запись прочитана в последние refresh-ahead ее времени жизни, загружает ее в фоне через loader
+     * и сохраняет через writer. Одновременно для ключа выполняется не больше одного обновления.
+     * Если за время загрузки запись была изменена или удалена, загруженное значение отбрасывается.
+     *
+     * @param key    ключ
+     * @param loader загрузка значения
+     * @param writer сохранение значения в кэш; должно вызывать {@link #written}
+     */
+    public void refreshIfDue(Object key, Callable<?> loader, BiConsumer<Object, Object> writer) {
+        var localKey = String.valueOf(key);
+        var known = writtenAt.get(localKey);
+        var at = known != null ? known : estimateWrittenAt(key);
+        if (known == null) {
+            writtenAt.put(localKey, at);
+        }
+        if (System.nanoTime() - at < policy.refreshAfter(key).toNanos() || !refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    var value = loader.call();
+                    if (Objects.equals(writtenAt.get(localKey), at)) {
+                        writer.accept(key, value);
+                        refreshes.increment();
+                    }
+                } catch (Exception e) {
+                    log.warn("RefreshAhead: refresh of " + localKey + " failed: " + e.getMessage());
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(localKey);
+            log.warn("RefreshAhead: refresh of " + localKey + " rejected: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Вычисляет время сохранения записи, сохраненной не этим экземпляром, по ее оставшемуся времени жизни.
+     *
+     * @param key ключ
+     * @return время сохранения по System.nanoTime()
+     */
+    private long estimateWrittenAt(Object key) {
+        var now = System.nanoTime();
+        var remaining = remainingTtl.apply(key);
+        if (remaining == null) {
+            return now;
+        }
+        var age = policy.ttl(key).minus(remaining);
+        return age.isNegative() ? now : now - age.toNanos();
+    }
+
+    /**
+     * Возвращает количество выполненных заблаговременных обновлений.
+     *
+     * @return количество обновлений
+     */
+    public long refreshes() {
+        return refreshes.sum();
+    }
+}
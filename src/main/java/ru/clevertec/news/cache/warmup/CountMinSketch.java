@@ -0,0 +1,76 @@
+package ru.clevertec.news.cache.warmup;
+
+/**
+ * Приблизительный счетчик частоты обращений к id (count-min sketch): DEPTH строк по width счетчиков,
+ * оценка - минимум из счетчиков ключа во всех строках, поэтому она может быть только завышена.
+ * В отличие от FrequencySketch сегментированного кэша, счетчики 32-битные и не насыщаются на 15,
+ * чтобы различать популярность самых частых новостей.
+ * <p>
+ * Счетчики обновляются без синхронизации: при гонке часть увеличений теряется, что для оценки
+ * популярности допустимо и дешевле любой блокировки.
+ */
+class CountMinSketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb7ee3a7b, 0x6c6d5a49, 0x2d5c1f3b};
+    private static final int DEPTH = SEEDS.length;
+
+    private final int[] table;
+    private final int width;
+    private final int widthMask;
+
+    CountMinSketch(int width) {
+        this.width = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.widthMask = this.width - 1;
+        this.table = new int[DEPTH * this.width];
+    }
+
+    /**
+     * Учитывает обращение к ключу.
+     *
+     * @param key ключ
+     * @return оценка частоты обращений к ключу с учетом этого обращения
+     */
+    int increment(long key) {
+        int hash = Long.hashCode(key);
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            int value = table[index];
+            if (value < Integer.MAX_VALUE) {
+                table[index] = ++value;
+            }
+            frequency = Math.min(frequency, value);
+        }
+        return frequency;
+    }
+
+    /**
+     * Возвращает оценку частоты обращений к ключу.
+     *
+     * @param key ключ
+     * @return частота обращений
+     */
+    int estimate(long key) {
+        int hash = Long.hashCode(key);
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Делит все счетчики пополам, чтобы оценка отражала недавнюю популярность.
+     */
+    void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & widthMask);
+    }
+}
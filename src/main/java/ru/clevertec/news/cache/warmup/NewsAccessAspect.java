@@ -0,0 +1,26 @@
+package ru.clevertec.news.cache.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Учитывает каждое чтение новости по id в {@link NewsAccessRecorder}. Выполняется раньше кэша
+ * (@Cacheable и NewsProxyService), поэтому учитываются и попадания в кэш.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NewsAccessAspect {
+
+    private final NewsAccessRecorder newsAccessRecorder;
+
+    @Before("execution(* ru.clevertec.news.service.impl.NewsServiceImpl.findNewsById(..)) && args(id)")
+    public void recordAccess(Long id) {
+        newsAccessRecorder.record(id);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.clevertec.news.cache.warmup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Учет популярности новостей: частоты обращений к id считаются в {@link CountMinSketch},
+ * а кандидаты в top-N - не больше 2 * topN id с наибольшей оценкой - хранятся отдельно.
+ * Новый id становится кандидатом, только если его оценка выше, чем у последнего из top-N
+ * при предыдущем отборе, поэтому редкие id не вытесняют популярные.
+ */
+@Component
+public class NewsAccessRecorder {
+
+    private final CountMinSketch sketch;
+    private final int topN;
+    private final Map<Long, Integer> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    private volatile int minCandidateFrequency;
+
+    public NewsAccessRecorder(@Value("${cache.warmup.sketch-width:16384}") int sketchWidth,
+                              @Value("${cache.warmup.top-n:1000}") int topN) {
+        this.sketch = new CountMinSketch(sketchWidth);
+        this.topN = topN;
+    }
+
+    /**
+     * Учитывает обращение к новости.
+     *
+     * @param id id новости
+     */
+    public void record(Long id) {
+        if (id == null) {
+            return;
+        }
+        var frequency = sketch.increment(id);
+        if (candidates.containsKey(id) || candidates.size() < 2 * topN || frequency > minCandidateFrequency) {
+            candidates.put(id, frequency);
+            if (candidates.size() > 2 * topN) {
+                prune();
+            }
+        }
+    }
+
+    /**
+     * Возвращает topN самых популярных новостей.
+     *
+     * @return оценки частоты обращений по id новостей в порядке убывания
+     */
+    public Map<Long, Integer> top() {
+        var top = new LinkedHashMap<Long, Integer>();
+        candidates.keySet().stream()
+                .map(id -> Map.entry(id, sketch.estimate(id)))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topN)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    /**
+     * Делит частоты пополам, чтобы новости, к которым перестали обращаться, постепенно уступали место новым.
+     */
+    public void age() {
+        pruneLock.lock();
+        try {
+            sketch.halve();
+            candidates.replaceAll((id, frequency) -> frequency >>> 1);
+            minCandidateFrequency >>>= 1;
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+
+    /**
+     * Оставляет topN кандидатов с наибольшей оценкой. Если отбор уже выполняет другой поток, ничего не делает.
+     */
+    private void prune() {
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try {
+            var sorted = candidates.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                    .toList();
+            if (sorted.size() <= topN) {
+                return;
+            }
+            sorted.subList(topN, sorted.size()).forEach(entry -> candidates.remove(entry.getKey(), entry.getValue()));
+            minCandidateFrequency = sorted.get(topN - 1).getValue();
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+}
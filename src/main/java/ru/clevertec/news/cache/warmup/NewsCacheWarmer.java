@@ -0,0 +1,128 @@
+package ru.clevertec.news.cache.warmup;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.repository.NewsPopularityRepository;
+import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.service.impl.NewsServiceImpl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прогрев кэша новостей самыми популярными новостями.
+ * Периодически добавляет top-N из {@link NewsAccessRecorder} к оценкам в таблице news_popularity, а при запуске
+ * загружает эти новости пакетами через {@link NewsService#findAllByIds}, то есть одним findAllById
+ * на пакет, в кэш новостей (Redis и локальный кэш или Cache&lt;Long, NewsDto&gt; профиля dev).
+ * <p>
+ * Прогрев при запуске выполняется по ApplicationReadyEvent, до того как Spring Boot переводит сервис
+ * в ReadinessState.ACCEPTING_TRAFFIC, и окружен событиями REFUSING_TRAFFIC и ACCEPTING_TRAFFIC,
+ * поэтому проба readiness не пропускает трафик на холодный кэш.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NewsCacheWarmer {
+
+    private final NewsAccessRecorder newsAccessRecorder;
+    private final NewsPopularityRepository newsPopularityRepository;
+    private final NewsService newsService;
+    private final Executor newsTaskExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    /**
+     * Прогревать кэш при запуске.
+     */
+    @Value("${cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Количество самых популярных новостей, которые сохраняются и загружаются в кэш.
+     */
+    @Value("${cache.warmup.top-n:1000}")
+    private int topN;
+
+    /**
+     * Прогревает кэш при запуске, пока сервис не принимает трафик.
+     *
+     * @param event событие готовности приложения
+     */
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        var context = event.getApplicationContext();
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        try {
+            warmup();
+        } finally {
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    /**
+     * Запускает прогрев кэша в фоне, если он еще не выполняется.
+     * Используется для повторного прогрева, например после очистки Redis; сервис при этом продолжает принимать трафик.
+     */
+    public void warmupAsync() {
+        newsTaskExecutor.execute(this::warmup);
+    }
+
+    /**
+     * Загружает в кэш сохраненные самые популярные новости пакетами по {@link NewsServiceImpl#BATCH_MAX_SIZE}.
+     * Ошибка прогрева не мешает запуску: кэш дозаполнится обычными чтениями.
+     */
+    public void warmup() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        var start = System.nanoTime();
+        loaded.set(0);
+        try {
+            var ids = newsPopularityRepository.findTopIds(PageRequest.of(0, topN));
+            for (int from = 0; from < ids.size(); from += NewsServiceImpl.BATCH_MAX_SIZE) {
+                var batch = ids.subList(from, Math.min(from + NewsServiceImpl.BATCH_MAX_SIZE, ids.size()));
+                loaded.addAndGet(newsService.findAllByIds(batch).size());
+            }
+            log.info("NewsCacheWarmer: loaded " + loaded.get() + " of " + ids.size() + " popular news in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            log.warn("NewsCacheWarmer: warmup failed after " + loaded.get() + " news: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Добавляет текущий top-N к сохраненным оценкам и уменьшает накопленные частоты вдвое.
+     * Под advisory-блокировкой сохраненные оценки сначала уменьшаются вдвое, затем к ним прибавляются
+     * оценки этого экземпляра, и остаются topN наибольших, поэтому экземпляры сервиса не затирают
+     * оценки друг друга, а в таблице нет момента, когда она пуста.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${cache.warmup.persist-interval:PT5M}", initialDelayString = "${cache.warmup.persist-interval:PT5M}")
+    public void persist() {
+        var top = newsAccessRecorder.top();
+        if (top.isEmpty()) {
+            return;
+        }
+        newsPopularityRepository.lockPopularity();
+        newsPopularityRepository.age();
+        top.forEach(newsPopularityRepository::merge);
+        newsPopularityRepository.deleteAllExceptTop(topN);
+        newsAccessRecorder.age();
+        log.debug("NewsCacheWarmer: persisted " + top.size() + " popular news");
+    }
+}
@@ -0,0 +1,22 @@
+package ru.clevertec.news.cache.warmup;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint для повторного прогрева кэша новостей, например после очистки или перезапуска Redis.
+ */
+@Component
+@AllArgsConstructor
+@Endpoint(id = "cachewarmup")
+public class NewsCacheWarmupEndpoint {
+
+    private final NewsCacheWarmer newsCacheWarmer;
+
+    @WriteOperation
+    public void warmup() {
+        newsCacheWarmer.warmupAsync();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.clevertec.news.config;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Исполнитель, который запускает каждую задачу в новом виртуальном потоке, но не больше чем maxConcurrency
+ * одновременно. В отличие от SimpleAsyncTaskExecutor с ограничением параллелизма, при достижении предела
+ * не ждет освобождения места, а сразу отказывает с {@link TaskRejectedException}, как пул платформенных
+ * потоков с заполненной очередью. Поэтому вызывающий поток не блокируется и может вернуть fallback.
+ */
+public class BoundedVirtualThreadExecutor implements Executor {
+
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Запускает задачу в новом виртуальном потоке.
+     *
+     * @param task задача
+     * @throws TaskRejectedException если уже выполняется maxConcurrency задач
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Executor is at its concurrency limit of " + maxConcurrency + ", task " + task + " rejected");
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает количество выполняющихся задач.
+     *
+     * @return количество выполняющихся задач
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
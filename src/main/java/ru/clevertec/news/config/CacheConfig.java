@@ -1,16 +1,25 @@
 package ru.clevertec.news.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.batch.LocalNewsBatchCache;
+import ru.clevertec.news.cache.batch.NewsBatchCache;
 import ru.clevertec.news.cache.impl.CacheLfu;
 import ru.clevertec.news.cache.impl.CacheLru;
+import ru.clevertec.news.cache.striped.CacheStriped;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
 import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.exception.CacheNotFoundException;
 import ru.clevertec.news.service.proxy.NewsProxyService;
 
+import java.util.concurrent.Executor;
+
+import static ru.clevertec.news.constant.Constant.STRIPED;
 import static ru.clevertec.news.constant.Variable.LFU;
 import static ru.clevertec.news.constant.Variable.LRU;
 
@@ -53,6 +62,16 @@ public class CacheConfig {
         return new CacheLfu<>();
     }
 
+    /**
+     * Возвращает сегментированный кэш для высокой конкуренции потоков.
+     *
+     * @return сегментированный кэш.
+     */
+    @Bean
+    public Cache<Long, NewsDto> getStripedCache() {
+        return new CacheStriped<>();
+    }
+
     /**
      * Возвращает кэш в зависимости от выбранного алгоритма.
      *
@@ -66,6 +85,8 @@ public class CacheConfig {
             cache = getLfuCache();
         } else if (algorithm.equals(LRU)) {
             cache = getLruCache();
+        } else if (algorithm.equals(STRIPED)) {
+            cache = getStripedCache();
         } else {
             throw new CacheNotFoundException();
         }
@@ -73,13 +94,36 @@ public class CacheConfig {
         return cache;
     }
 
+    /**
+     * Возвращает время жизни и заблаговременное обновление записей кэша новостей по newsCacheTtlPolicy,
+     * общие для NewsProxyService и пакетного доступа к кэшу. Обновления выполняются в newsTaskExecutor.
+     *
+     * @return заблаговременное обновление записей
+     */
+    @Bean
+    public RefreshAhead newsRefreshAhead(CacheTtlPolicy newsCacheTtlPolicy, Executor newsTaskExecutor) {
+        return new RefreshAhead(newsCacheTtlPolicy, capacity * 2, newsTaskExecutor);
+    }
+
     /**
      * Возвращает сервис прокси для работы с HouseDto.
+     * Записи истекают и обновляются заранее, если задано время жизни newsCacheTtlPolicy.
      *
      * @return NewsProxyService - сервис прокси для работы с HouseDto.
      */
     @Bean
-    public NewsProxyService getNewsProxyService() {
-        return new NewsProxyService(cache());
+    public NewsProxyService getNewsProxyService(MeterRegistry meterRegistry, CacheTtlPolicy newsCacheTtlPolicy,
+                                                RefreshAhead newsRefreshAhead) {
+        return new NewsProxyService(cache(), meterRegistry, newsCacheTtlPolicy.isEnabled() ? newsRefreshAhead : null);
+    }
+
+    /**
+     * Возвращает пакетный доступ к кэшу новостей с тем же временем жизни записей, что и в NewsProxyService.
+     *
+     * @return пакетный доступ к кэшу, который использует NewsProxyService.
+     */
+    @Bean
+    public NewsBatchCache newsBatchCache(CacheTtlPolicy newsCacheTtlPolicy, RefreshAhead newsRefreshAhead) {
+        return new LocalNewsBatchCache(cache(), newsCacheTtlPolicy.isEnabled() ? newsRefreshAhead : null);
     }
-}
\ No newline at end of file
+}
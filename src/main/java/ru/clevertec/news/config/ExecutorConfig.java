@@ -0,0 +1,69 @@
+package ru.clevertec.news.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Класс, который отвечает за конфигурацию пулов потоков для фоновых задач сервиса.
+ * Включает выполнение задач по расписанию (ретранслятор ленты изменений).
+ * При spring.threads.virtual.enabled=true задачи выполняются в виртуальных потоках,
+ * как и запросы Tomcat и задачи по расписанию.
+ */
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    /**
+     * Выполнять задачи в виртуальных потоках вместо пула платформенных потоков.
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Количество потоков для обращений к внешним сервисам.
+     */
+    @Value("${news.executor.pool-size:32}")
+    private int poolSize;
+
+    /**
+     * Размер очереди задач, ожидающих свободный поток.
+     */
+    @Value("${news.executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    /**
+     * Максимальное количество одновременно выполняемых задач в режиме виртуальных потоков.
+     * Ограничивает нагрузку на внешние сервисы: потоки не кончаются, и без ограничения
+     * все запросы ушли бы в микросервис комментариев одновременно.
+     */
+    @Value("${news.executor.max-concurrency:1000}")
+    private int maxConcurrency;
+
+    /**
+     * Возвращает исполнитель вызовов микросервиса комментариев и фоновых обновлений кэша:
+     * пул платформенных потоков или, в режиме виртуальных потоков, исполнитель, который запускает
+     * каждую задачу в новом виртуальном потоке не больше чем по maxConcurrency одновременно.
+     * В обоих режимах задача сверх предела сразу отклоняется с TaskRejectedException, а не ждет места,
+     * поэтому вызывающий поток не блокируется.
+     *
+     * @return исполнитель задач
+     */
+    @Bean
+    public Executor newsTaskExecutor() {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("news-task-", maxConcurrency);
+        }
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("news-task-");
+        executor.initialize();
+        return executor;
+    }
+}
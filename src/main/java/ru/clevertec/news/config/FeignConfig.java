@@ -0,0 +1,40 @@
+package ru.clevertec.news.config;
+
+import feign.Client;
+import feign.http2client.Http2Client;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Класс, который отвечает за конфигурацию HTTP-клиента Feign.
+ */
+@Configuration
+public class FeignConfig {
+
+    /**
+     * Время установки соединения с микросервисом комментариев.
+     */
+    @Value("${feign.comments-service.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    /**
+     * Возвращает HTTP-клиент Feign на основе java.net.http.HttpClient для режима виртуальных потоков.
+     * Клиент по умолчанию (HttpURLConnection) блокируется внутри synchronized и закрепляет
+     * виртуальный поток за платформенным на все время запроса.
+     *
+     * @return HTTP-клиент Feign
+     */
+    @Bean
+    @ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+    public Client feignClient() {
+        return new Http2Client(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.clevertec.news.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Класс, который отвечает за конфигурацию метрик.
+ * Метрики пула соединений Hikari, JVM и HTTP-запросов Spring Boot регистрирует сам,
+ * здесь включается поддержка {@link io.micrometer.core.annotation.Timed} на сервисах.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.clevertec.news.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+
+import java.time.Duration;
+
+/**
+ * Класс, который отвечает за время жизни записей кэша новостей.
+ * Политика общая для кэша NewsProxyService (dev) и кэша Redis @Cacheable("news").
+ */
+@Configuration
+public class NewsCacheTtlConfig {
+
+    /**
+     * Базовое время жизни записи кэша новостей; PT0S - записи не истекают.
+     */
+    @Value("${cache.news.ttl:PT10M}")
+    private Duration ttl;
+
+    /**
+     * Разброс времени жизни записи, доля от базового.
+     */
+    @Value("${cache.news.ttl-jitter:0.1}")
+    private double jitter;
+
+    /**
+     * Доля времени жизни в его конце, в течение которой прочитанная запись обновляется в фоне.
+     */
+    @Value("${cache.news.refresh-ahead:0.2}")
+    private double refreshAhead;
+
+    /**
+     * Возвращает политику времени жизни записей кэша новостей.
+     *
+     * @return политика времени жизни
+     */
+    @Bean
+    public CacheTtlPolicy newsCacheTtlPolicy() {
+        return new CacheTtlPolicy(ttl, jitter, refreshAhead);
+    }
+}
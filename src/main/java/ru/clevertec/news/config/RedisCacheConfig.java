@@ -1,28 +1,201 @@
 package ru.clevertec.news.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import redis.clients.jedis.JedisPoolConfig;
+import ru.clevertec.news.cache.batch.NewsBatchCache;
+import ru.clevertec.news.cache.batch.RedisNewsBatchCache;
+import ru.clevertec.news.cache.codec.CacheCodec;
+import ru.clevertec.news.cache.near.NearCacheManager;
+import ru.clevertec.news.cache.near.NearCacheMetrics;
+import ru.clevertec.news.cache.near.RedisNearCacheInvalidation;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+import ru.clevertec.news.cache.ttl.RedisRemainingTtl;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+import ru.clevertec.news.service.impl.NewsServiceImpl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Configuration
 @Profile({"!dev"})
 public class RedisCacheConfig extends CachingConfigurerSupport {
 
+    private static final String NEWS_CACHE_NAME = "news";
+
     @Value("${spring.redis.port}")
     private int port;
 
     @Value("${spring.redis.host}")
     private String host;
 
+    /**
+     * Кэши, перед которыми ставится локальный кэш процесса.
+     */
+    @Value("${cache.near.names:news,newsVersion}")
+    private Set<String> nearCacheNames;
+
+    /**
+     * Максимальное количество записей локального кэша.
+     */
+    @Value("${cache.near.max-size:10000}")
+    private int nearCacheMaxSize;
+
+    /**
+     * Время жизни записи локального кэша.
+     */
+    @Value("${cache.near.ttl:PT30S}")
+    private Duration nearCacheTtl;
+
+    /**
+     * Канал Redis для рассылки инвалидаций локальных кэшей.
+     */
+    @Value("${cache.near.channel:news-cache-invalidation}")
+    private String nearCacheChannel;
+
+    /**
+     * Формат значений по умолчанию для кэшей Redis.
+     */
+    @Value("${cache.redis.codec:JDK}")
+    private CacheCodec defaultCodec;
+
+    /**
+     * Формат значений для отдельных кэшей Redis.
+     */
+    @Value("#{${cache.redis.codecs:{news: 'COMPACT'}}}")
+    private Map<String, CacheCodec> codecs;
+
+    /**
+     * Размер значения в байтах, начиная с которого компактный формат сжимает его; 0 - не сжимать.
+     */
+    @Value("${cache.redis.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    /**
+     * Максимальное количество соединений с Redis в пуле.
+     */
+    @Value("${cache.redis.pool.max-total:64}")
+    private int poolMaxTotal;
+
+    /**
+     * Время ожидания свободного соединения с Redis, после которого запрос завершается ошибкой.
+     */
+    @Value("${cache.redis.pool.max-wait:PT1S}")
+    private Duration poolMaxWait;
+
+    /**
+     * Возвращает фабрику соединений с Redis с пулом соединений. Пул (commons-pool2) ждет свободное
+     * соединение на ReentrantLock, а не в synchronized, поэтому ожидание не закрепляет виртуальный поток.
+     * Размер пула ограничен, а ожидание - конечно: иначе в режиме виртуальных потоков все запросы
+     * выстроились бы в очередь за соединениями пула по умолчанию (8).
+     *
+     * @return фабрика соединений
+     */
     @Bean
     public JedisConnectionFactory jedisConnectionFactory() {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
         configuration.setHostName(host);
         configuration.setPort(port);
-        return new JedisConnectionFactory(configuration);
+        var poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(poolMaxTotal);
+        poolConfig.setMaxIdle(poolMaxTotal);
+        poolConfig.setMaxWait(poolMaxWait);
+        var clientConfiguration = JedisClientConfiguration.builder()
+                .usePooling()
+                .poolConfig(poolConfig)
+                .build();
+        return new JedisConnectionFactory(configuration, clientConfiguration);
+    }
+
+    @Bean
+    public RedisNearCacheInvalidation nearCacheInvalidation(StringRedisTemplate stringRedisTemplate) {
+        return new RedisNearCacheInvalidation(stringRedisTemplate, nearCacheChannel);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer nearCacheListenerContainer(JedisConnectionFactory jedisConnectionFactory,
+                                                                    RedisNearCacheInvalidation nearCacheInvalidation) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(jedisConnectionFactory);
+        container.addMessageListener(nearCacheInvalidation, new ChannelTopic(nearCacheChannel));
+        return container;
+    }
+
+    /**
+     * Возвращает менеджер кэшей: Redis с локальным кэшем процесса перед выбранными кэшами.
+     * Записи кэша новостей живут в Redis по newsCacheTtlPolicy, каждая со своим разбросом, и,
+     * если кэш новостей двухуровневый, обновляются заранее в newsTaskExecutor. Возраст записей,
+     * сохраненных другими экземплярами сервиса, определяется по их оставшемуся времени жизни в Redis.
+     * Двухуровневый кэш новостей сам загружает промахи и обновления через {@link NewsServiceImpl#loadNewsById},
+     * по одной загрузке на id; сервис берется лениво, так как сам зависит от кэша.
+     *
+     * @return менеджер кэшей
+     */
+    @Bean
+    public NearCacheManager cacheManager(JedisConnectionFactory jedisConnectionFactory,
+                                     RedisNearCacheInvalidation nearCacheInvalidation,
+                                     CacheTtlPolicy newsCacheTtlPolicy,
+                                     Executor newsTaskExecutor,
+                                     ObjectProvider<NewsServiceImpl> newsService) {
+        var cacheConfigurations = codecs.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> cacheConfiguration(entry.getValue())));
+        Map<String, RefreshAhead> refreshAhead = Map.of();
+        if (newsCacheTtlPolicy.isEnabled()) {
+            var newsConfiguration = cacheConfigurations
+                    .getOrDefault(NEWS_CACHE_NAME, cacheConfiguration(defaultCodec))
+                    .entryTtl((key, value) -> newsCacheTtlPolicy.ttl(key));
+            cacheConfigurations.put(NEWS_CACHE_NAME, newsConfiguration);
+            refreshAhead = Map.of(NEWS_CACHE_NAME, new RefreshAhead(newsCacheTtlPolicy, nearCacheMaxSize * 2, newsTaskExecutor,
+                    new RedisRemainingTtl(jedisConnectionFactory, newsConfiguration, NEWS_CACHE_NAME)));
+        }
+        var redisCacheManager = RedisCacheManager.builder(jedisConnectionFactory)
+                .cacheDefaults(cacheConfiguration(defaultCodec))
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        Map<String, Function<Object, ?>> loaders = Map.of(NEWS_CACHE_NAME,
+                id -> newsService.getObject().loadNewsById((Long) id));
+        var cacheManager = new NearCacheManager(redisCacheManager, nearCacheNames, nearCacheMaxSize, nearCacheTtl,
+                nearCacheInvalidation, refreshAhead, loaders);
+        nearCacheInvalidation.setCacheManager(cacheManager);
+        nearCacheNames.forEach(cacheManager::getCache);
+        return cacheManager;
+    }
+
+    @Bean
+    public NearCacheMetrics nearCacheMetrics(NearCacheManager cacheManager) {
+        return new NearCacheMetrics(cacheManager);
+    }
+
+    /**
+     * Возвращает пакетный доступ к кэшу новостей: локальный кэш процесса и MGET в Redis.
+     *
+     * @return пакетный доступ к кэшу новостей
+     */
+    @Bean
+    public NewsBatchCache newsBatchCache(NearCacheManager cacheManager, JedisConnectionFactory jedisConnectionFactory) {
+        return new RedisNewsBatchCache(cacheManager, jedisConnectionFactory);
+    }
+
+    private RedisCacheConfiguration cacheConfiguration(CacheCodec codec) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(codec.serializer(compressionThreshold)));
     }
-}
\ No newline at end of file
+}
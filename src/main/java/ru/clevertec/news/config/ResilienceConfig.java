@@ -0,0 +1,116 @@
+package ru.clevertec.news.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Класс, который отвечает за защиту сервиса от медленного или недоступного микросервиса комментариев.
+ * Метрики выключателя и ограничителя публикуются в Micrometer (resilience4j.circuitbreaker.*, resilience4j.bulkhead.*).
+ */
+@Configuration
+public class ResilienceConfig {
+
+    private static final String COMMENTS = "comments";
+
+    /**
+     * Время ответа, начиная с которого вызов микросервиса комментариев считается медленным.
+     */
+    @Value("${news.comments.timeout:PT1S}")
+    private Duration slowCallDurationThreshold;
+
+    /**
+     * Доля ошибок или медленных вызовов в процентах, при которой выключатель размыкается.
+     */
+    @Value("${news.comments.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    /**
+     * Количество последних вызовов, по которым считается доля ошибок.
+     */
+    @Value("${news.comments.circuit-breaker.sliding-window-size:50}")
+    private int slidingWindowSize;
+
+    /**
+     * Минимальное количество вызовов, после которого выключатель может разомкнуться.
+     */
+    @Value("${news.comments.circuit-breaker.minimum-number-of-calls:20}")
+    private int minimumNumberOfCalls;
+
+    /**
+     * Время, в течение которого разомкнутый выключатель не пропускает вызовы.
+     */
+    @Value("${news.comments.circuit-breaker.wait-duration-in-open-state:PT10S}")
+    private Duration waitDurationInOpenState;
+
+    /**
+     * Количество пробных вызовов в полуоткрытом состоянии.
+     */
+    @Value("${news.comments.circuit-breaker.permitted-calls-in-half-open-state:5}")
+    private int permittedCallsInHalfOpenState;
+
+    /**
+     * Максимальное количество одновременных вызовов микросервиса комментариев.
+     */
+    @Value("${news.comments.bulkhead.max-concurrent-calls:16}")
+    private int maxConcurrentCalls;
+
+    /**
+     * Время ожидания свободного места в ограничителе; 0 - сразу отказывать.
+     */
+    @Value("${news.comments.bulkhead.max-wait:PT0S}")
+    private Duration bulkheadMaxWait;
+
+    /**
+     * Возвращает выключатель вызовов микросервиса комментариев. Размыкается, когда ошибки или вызовы
+     * дольше news.comments.timeout составляют failureRateThreshold процентов последних вызовов.
+     * Отказы ограничителя не считаются ошибками микросервиса.
+     *
+     * @param meterRegistry реестр метрик
+     * @return выключатель
+     */
+    @Bean
+    public CircuitBreaker commentsCircuitBreaker(MeterRegistry meterRegistry) {
+        var registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(COMMENTS);
+    }
+
+    /**
+     * Возвращает ограничитель одновременных вызовов микросервиса комментариев, чтобы медленный
+     * микросервис не занимал все потоки исполнителя.
+     *
+     * @param meterRegistry реестр метрик
+     * @return ограничитель
+     */
+    @Bean
+    public Bulkhead commentsBulkhead(MeterRegistry meterRegistry) {
+        var registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(COMMENTS);
+    }
+}
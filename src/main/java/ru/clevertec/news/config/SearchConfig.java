@@ -0,0 +1,14 @@
+package ru.clevertec.news.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import ru.clevertec.news.config.properties.SearchProperties;
+
+/**
+ * Класс, который отвечает за конфигурацию поиска новостей.
+ * Индексы для поиска создаются миграциями Flyway (db/migration).
+ */
+@Configuration
+@EnableConfigurationProperties(SearchProperties.class)
+public class SearchConfig {
+}
@@ -0,0 +1,32 @@
+package ru.clevertec.news.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Регистрирует в Hibernate функции полнотекстового поиска PostgreSQL,
+ * чтобы их можно было использовать в спецификациях через Criteria API.
+ * Выражения совпадают с выражениями GIN-индексов, иначе планировщик их не применит.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String FTS_MATCH = "fts_match";
+    public static final String FTS_RANK = "fts_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var registry = functionContributions.getFunctionRegistry();
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        registry.registerPattern(
+                FTS_MATCH,
+                "to_tsvector('simple', coalesce(?1, '')) @@ plainto_tsquery('simple', ?2)",
+                types.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        registry.registerPattern(
+                FTS_RANK,
+                "ts_rank(to_tsvector('simple', coalesce(?1, '')), plainto_tsquery('simple', ?2))",
+                types.resolve(StandardBasicTypes.FLOAT)
+        );
+    }
+}
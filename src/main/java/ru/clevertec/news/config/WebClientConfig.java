@@ -0,0 +1,72 @@
+package ru.clevertec.news.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.clevertec.news.feign.ReactiveCommentClient;
+
+import java.time.Duration;
+
+/**
+ * Класс, который отвечает за конфигурацию неблокирующего клиента микросервиса комментариев.
+ * Включается при news.comments.reactive.enabled=true; иначе комментарии запрашиваются через Feign.
+ */
+@Configuration
+@ConditionalOnProperty(value = "news.comments.reactive.enabled", havingValue = "true")
+public class WebClientConfig {
+
+    @Value("${feign.comments-service.url}")
+    private String url;
+
+    /**
+     * Время установки соединения с микросервисом комментариев.
+     */
+    @Value("${feign.comments-service.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    /**
+     * Максимальное количество одновременных запросов (соединений) к микросервису комментариев.
+     */
+    @Value("${news.comments.reactive.max-connections:100}")
+    private int maxConnections;
+
+    /**
+     * Максимальное количество запросов, ожидающих свободное соединение. Запросы сверх него
+     * сразу завершаются ошибкой, а не копятся в памяти.
+     */
+    @Value("${news.comments.reactive.max-pending:1000}")
+    private int maxPending;
+
+    /**
+     * Возвращает клиент микросервиса комментариев. Все запросы идут через пул не больше чем
+     * из maxConnections соединений, остальные ждут в очереди длиной maxPending.
+     *
+     * @param webClientBuilder построитель WebClient с кодеками Jackson приложения
+     * @return клиент микросервиса комментариев
+     */
+    @Bean
+    public ReactiveCommentClient reactiveCommentClient(WebClient.Builder webClientBuilder) {
+        var connectionProvider = ConnectionProvider.builder("comments-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(connectTimeout)
+                .build();
+        var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+        var webClient = webClientBuilder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        return HttpServiceProxyFactory.builderFor(WebClientAdapter.create(webClient))
+                .build()
+                .createClient(ReactiveCommentClient.class);
+    }
+}
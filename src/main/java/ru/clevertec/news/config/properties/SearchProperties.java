@@ -0,0 +1,18 @@
+package ru.clevertec.news.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ru.clevertec.news.model.enums.SearchMode;
+
+/**
+ * Настройки поиска новостей.
+ *
+ * @param mode         способ поиска по заголовку и тексту
+ * @param likeFallback повторять поиск через like, если полнотекстовый поиск ничего не нашел
+ */
+@ConfigurationProperties(prefix = "news.search")
+public record SearchProperties(
+        @DefaultValue("LIKE") SearchMode mode,
+        @DefaultValue("true") boolean likeFallback
+) {
+}
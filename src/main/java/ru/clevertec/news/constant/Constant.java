@@ -4,4 +4,7 @@ public class Constant {
 
     public static final String OFFSET_DEFAULT = "1";
     public static final String LIMIT_DEFAULT = "15";
+    public static final int LIMIT_MAX = 100;
+    public static final String CHANGES_LIMIT_DEFAULT = "100";
+    public static final String STRIPED = "STRIPED";
 }
\ No newline at end of file
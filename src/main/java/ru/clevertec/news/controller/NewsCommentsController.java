@@ -0,0 +1,34 @@
+package ru.clevertec.news.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.clevertec.news.annotation.Log;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.service.NewsService;
+
+import static ru.clevertec.news.constant.Constant.LIMIT_DEFAULT;
+import static ru.clevertec.news.constant.Constant.OFFSET_DEFAULT;
+
+/**
+ * Контроллер для получения новости с комментариями через блокирующий клиент Feign.
+ * Используется, пока не включен неблокирующий режим (news.comments.reactive.enabled).
+ */
+@Log
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/news")
+@ConditionalOnProperty(value = "news.comments.reactive.enabled", havingValue = "false", matchIfMissing = true)
+public class NewsCommentsController {
+
+    private final NewsService newsService;
+
+    @GetMapping("{id}/comments")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public NewsDto getByIdWithComments(@RequestParam(value = "pageNumber", defaultValue = OFFSET_DEFAULT) Integer pageNumber,
+                                       @RequestParam(value = "pageSize", defaultValue = LIMIT_DEFAULT) Integer pageSize,
+                                       @PathVariable("id") Long id) {
+        return newsService.findNewsByIdWithComments(pageNumber, pageSize, id);
+    }
+}
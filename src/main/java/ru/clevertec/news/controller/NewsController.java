@@ -1,18 +1,42 @@
 package ru.clevertec.news.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.clevertec.news.annotation.Log;
+import ru.clevertec.news.cache.json.NewsJsonCache;
 import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.dto.create.NewsCreateDto;
 import ru.clevertec.news.dto.page.PageContentDto;
 import ru.clevertec.news.dto.page.PageParamDto;
 import ru.clevertec.news.dto.update.NewsUpdateDto;
+import ru.clevertec.news.exception.InvalidPageSizeException;
+import ru.clevertec.news.model.dto.CursorPageDto;
+import ru.clevertec.news.model.dto.NewsChangedEvent;
 import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.service.NewsChangeService;
 import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.service.NewsTimelineService;
+import ru.clevertec.news.util.ETagUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static ru.clevertec.news.constant.Constant.CHANGES_LIMIT_DEFAULT;
 import static ru.clevertec.news.constant.Constant.LIMIT_DEFAULT;
+import static ru.clevertec.news.constant.Constant.LIMIT_MAX;
 import static ru.clevertec.news.constant.Constant.OFFSET_DEFAULT;
 
 /**
@@ -24,29 +48,130 @@ import static ru.clevertec.news.constant.Constant.OFFSET_DEFAULT;
 @RequestMapping("/api/news")
 public class NewsController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP = "gzip";
+    private static final Pattern GZIP_REJECTED = Pattern.compile(";\\s*q=0(\\.0*)?$");
+
     private final NewsService newsService;
+    private final NewsChangeService newsChangeService;
+    private final NewsTimelineService newsTimelineService;
+    private final ObjectMapper objectMapper;
+    private final NewsJsonCache newsJsonCache;
 
+    /**
+     * Возвращает новость с сильным ETag и Last-Modified. Если у клиента актуальная версия
+     * (If-None-Match или If-Modified-Since), отвечает 304 по кэшированной версии новости,
+     * не читая саму новость. Если включен кэш JSON новостей, пишет в ответ готовые байты,
+     * сжатые gzip, если клиент их принимает.
+     */
     @GetMapping("/{id}")
+    public ResponseEntity<?> getNewsById(@PathVariable("id") Long id,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                         WebRequest request) {
+        var version = newsService.findNewsVersion(id);
+        var eTag = ETagUtils.strong(version);
+        var lastModified = ETagUtils.lastModified(List.of(version));
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+        var response = ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified);
+        if (!newsJsonCache.isEnabled()) {
+            return response.body(newsService.findNewsById(id));
+        }
+        var newsJson = newsJsonCache.get(version, () -> newsService.findNewsById(id));
+        response.contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (newsJson.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .body(newsJson.gzip());
+        }
+        return response.body(newsJson.json());
+    }
+
+    /**
+     * Возвращает страницу новостей со слабым ETag, вычисленным по id и версиям новостей страницы.
+     * Только если клиент прислал If-None-Match, сначала читаются версии страницы, и при совпадении ETag
+     * ответ 304 отдается без чтения, преобразования и сериализации новостей. Иначе страница читается один раз,
+     * а ETag вычисляется по загруженным новостям.
+     */
+    @GetMapping
+    public ResponseEntity<PageContentDto<NewsDto>> getAll(@RequestParam(value = "pageNumber", required = false, defaultValue = OFFSET_DEFAULT) int pageNumber,
+                                                          @RequestParam(value = "pageSize", required = false, defaultValue = LIMIT_DEFAULT) int pageSize,
+                                                          @RequestParam(value = "title", required = false) String title,
+                                                          @RequestParam(value = "text", required = false) String text,
+                                                          WebRequest request) {
+        var param = new PageParamDto(pageNumber, pageSize);
+        var filter = new NewsFilterDto(title, text);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            var versions = newsService.findAllVersions(param, filter);
+            if (request.checkNotModified(ETagUtils.weak(versions.page(), versions.content()))) {
+                return null;
+            }
+        }
+        var page = newsService.findAllWithVersions(param, filter);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.weak(page.page().page(), page.versions()))
+                .body(page.page());
+    }
+
+    /**
+     * Возвращает новости по списку id в порядке переданных id, ненайденные id пропускаются.
+     */
+    @GetMapping(params = "ids")
     @ResponseStatus(HttpStatus.OK)
-    public NewsDto getNewsById(@PathVariable("id") Long id) {
-        return newsService.findNewsById(id);
+    public List<NewsDto> getAllByIds(@RequestParam("ids") List<Long> ids) {
+        return newsService.findAllByIds(ids);
     }
 
-    @GetMapping("{id}/comments")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public NewsDto getByIdWithComments(@RequestParam(value = "pageNumber", defaultValue = OFFSET_DEFAULT) Integer pageNumber,
-                                       @RequestParam(value = "pageSize", defaultValue = LIMIT_DEFAULT) Integer pageSize,
-                                       @PathVariable("id") Long id) {
-        return newsService.findNewsByIdWithComments(pageNumber, pageSize, id);
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<NewsDto> getAllByIdsBatch(@RequestBody List<Long> ids) {
+        return newsService.findAllByIds(ids);
     }
 
-    @GetMapping
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(@RequestParam(value = "title", required = false) String title,
+                       @RequestParam(value = "text", required = false) String text,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        var writer = objectMapper.writerFor(NewsDto.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        var out = new BufferedOutputStream(response.getOutputStream(), EXPORT_BUFFER_SIZE);
+        newsService.exportAll(new NewsFilterDto(title, text), news -> {
+            try {
+                writer.writeValue(out, news);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
+    @GetMapping("/cursor")
     @ResponseStatus(HttpStatus.OK)
-    public PageContentDto<NewsDto> getAll(@RequestParam(value = "pageNumber", required = false, defaultValue = OFFSET_DEFAULT) int pageNumber,
-                                          @RequestParam(value = "pageSize", required = false, defaultValue = LIMIT_DEFAULT) int pageSize,
-                                          @RequestParam(value = "title", required = false) String title,
-                                          @RequestParam(value = "text", required = false) String text) {
-        return newsService.findAll(new PageParamDto(pageNumber, pageSize), new NewsFilterDto(title, text));
+    public CursorPageDto<NewsDto> getAllByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                 @RequestParam(value = "pageSize", required = false, defaultValue = LIMIT_DEFAULT) int pageSize,
+                                                 @RequestParam(value = "count", required = false, defaultValue = "NONE") CountMode count,
+                                                 @RequestParam(value = "title", required = false) String title,
+                                                 @RequestParam(value = "text", required = false) String text) {
+        return newsService.findAllByCursor(cursor, checkPageSize(pageSize), new NewsFilterDto(title, text), count);
+    }
+
+    @GetMapping("/users/{userId}")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<NewsDto> getAllByUser(@PathVariable("userId") Long userId,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "pageSize", required = false, defaultValue = LIMIT_DEFAULT) int pageSize) {
+        return newsTimelineService.findAllByUser(userId, cursor, checkPageSize(pageSize));
+    }
+
+    @GetMapping("/changes")
+    @ResponseStatus(HttpStatus.OK)
+    public List<NewsChangedEvent> getChanges(@RequestParam(value = "since", required = false, defaultValue = "0") Long since,
+                                             @RequestParam(value = "limit", required = false, defaultValue = CHANGES_LIMIT_DEFAULT) int limit) {
+        return newsChangeService.findChanges(since, limit);
     }
 
     @PostMapping
@@ -55,10 +180,22 @@ public class NewsController {
         return newsService.create(newsCreateDto);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<NewsDto> createAll(@RequestBody List<NewsCreateDto> newsCreateDtos) {
+        return newsService.createAll(newsCreateDtos);
+    }
+
+    /**
+     * Обновляет новость. Если передан If-Match с ETag новости, обновление выполняется,
+     * только если новость не менялась с этой версии, иначе возвращается 412.
+     * Слабый ETag и ETag другой новости тоже дают 412.
+     */
     @PutMapping
     @ResponseStatus(HttpStatus.OK)
-    public NewsDto update(@RequestBody NewsUpdateDto newsUpdateDto) {
-        return newsService.update(newsUpdateDto);
+    public NewsDto update(@RequestBody NewsUpdateDto newsUpdateDto,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return newsService.update(newsUpdateDto, ETagUtils.version(ifMatch, newsUpdateDto.getId()));
     }
 
     @DeleteMapping("/{id}")
@@ -66,4 +203,20 @@ public class NewsController {
     public void delete(@PathVariable("id") Long id) {
         newsService.delete(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет размер страницы keyset-пагинации: от 1 до {@link ru.clevertec.news.constant.Constant#LIMIT_MAX}.
+     */
+    private static int checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > LIMIT_MAX) {
+            throw new InvalidPageSizeException(LIMIT_MAX);
+        }
+        return pageSize;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && Arrays.stream(acceptEncoding.split(","))
+                .map(String::trim)
+                .anyMatch(coding -> coding.startsWith(GZIP) && !GZIP_REJECTED.matcher(coding).find());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.clevertec.news.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.clevertec.news.annotation.Log;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.service.ReactiveNewsService;
+
+import static ru.clevertec.news.constant.Constant.LIMIT_DEFAULT;
+import static ru.clevertec.news.constant.Constant.OFFSET_DEFAULT;
+
+/**
+ * Контроллер для получения новости с комментариями в неблокирующем режиме (news.comments.reactive.enabled=true).
+ * Возвращает Mono: поток Tomcat освобождается сразу, а ответ пишется после получения новости и комментариев.
+ */
+@Log
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/news")
+@ConditionalOnProperty(value = "news.comments.reactive.enabled", havingValue = "true")
+public class ReactiveNewsCommentsController {
+
+    private final ReactiveNewsService reactiveNewsService;
+
+    @GetMapping("{id}/comments")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<NewsDto> getByIdWithComments(@RequestParam(value = "pageNumber", defaultValue = OFFSET_DEFAULT) Integer pageNumber,
+                                             @RequestParam(value = "pageSize", defaultValue = LIMIT_DEFAULT) Integer pageSize,
+                                             @PathVariable("id") Long id) {
+        return reactiveNewsService.findNewsByIdWithComments(pageNumber, pageSize, id);
+    }
+}
@@ -19,5 +19,7 @@ public interface NewsConverter {
 
     List<NewsDto> convertToList(List<News> source);
 
+    List<News> convertToEntityList(List<NewsCreateDto> source);
+
     News merge(@MappingTarget News news, NewsUpdateDto dto);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.clevertec.news.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, если в пакетном запросе новостей передано слишком много элементов.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchSizeExceededException extends RuntimeException {
+
+    public BatchSizeExceededException(int maxSize) {
+        super("Too many elements in batch, max " + maxSize + "!");
+    }
+}
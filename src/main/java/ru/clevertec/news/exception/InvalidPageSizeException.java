@@ -0,0 +1,15 @@
+package ru.clevertec.news.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое при передаче размера страницы вне допустимых пределов.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(int maxSize) {
+        super("Page size must be between 1 and " + maxSize + "!");
+    }
+}
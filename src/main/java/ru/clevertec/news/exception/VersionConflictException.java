@@ -0,0 +1,15 @@
+package ru.clevertec.news.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, выбрасываемое, когда новость изменилась после того, как клиент получил ее версию.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException() {
+        super("News version has changed!");
+    }
+}
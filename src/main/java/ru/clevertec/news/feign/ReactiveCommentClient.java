@@ -0,0 +1,28 @@
+package ru.clevertec.news.feign;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import reactor.core.publisher.Mono;
+import ru.clevertec.news.dto.CommentDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+
+/**
+ * Неблокирующий клиент микросервиса комментариев на основе WebClient.
+ * Повторяет {@link CommentClient}; создается в WebClientConfig при news.comments.reactive.enabled=true.
+ */
+public interface ReactiveCommentClient {
+
+    /**
+     * Получение списка комментариев для определенной новости с пагинацией
+     *
+     * @param pageNumber смещение (начальный индекс комментариев)
+     * @param pageSize   количество комментариев на странице
+     * @param id         идентификатор новости
+     * @return объект Page CommentDto со списком комментариев для новости
+     */
+    @GetExchange("/newsId/{id}")
+    Mono<PageContentDto<CommentDto>> getByNewsId(@RequestParam("pageNumber") int pageNumber,
+                                                 @RequestParam("pageSize") int pageSize,
+                                                 @PathVariable("id") Long id);
+}
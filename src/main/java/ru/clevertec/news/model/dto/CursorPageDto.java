@@ -0,0 +1,17 @@
+package ru.clevertec.news.model.dto;
+
+import java.util.List;
+
+/**
+ * Страница, полученная keyset-пагинацией.
+ *
+ * @param content       элементы страницы
+ * @param nextCursor    курсор для запроса следующей страницы или null, если страница последняя
+ * @param totalElements общее (или оценочное) количество элементов, null если подсчет не запрашивался
+ */
+public record CursorPageDto<T>(
+        List<T> content,
+        String nextCursor,
+        Long totalElements
+) {
+}
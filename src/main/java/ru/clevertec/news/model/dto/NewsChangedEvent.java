@@ -0,0 +1,21 @@
+package ru.clevertec.news.model.dto;
+
+import ru.clevertec.news.model.enums.NewsChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие изменения новости.
+ *
+ * @param sequence номер изменения в ленте изменений, строго возрастает без пропусков
+ * @param newsId   id новости
+ * @param type     тип изменения
+ * @param time     время изменения
+ */
+public record NewsChangedEvent(
+        Long sequence,
+        Long newsId,
+        NewsChangeType type,
+        LocalDateTime time
+) {
+}
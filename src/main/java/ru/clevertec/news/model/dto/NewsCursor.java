@@ -0,0 +1,12 @@
+package ru.clevertec.news.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция в ленте новостей для keyset-пагинации: время публикации и id последней выданной новости.
+ */
+public record NewsCursor(
+        LocalDateTime time,
+        Long id
+) {
+}
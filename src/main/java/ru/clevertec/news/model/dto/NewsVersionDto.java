@@ -0,0 +1,18 @@
+package ru.clevertec.news.model.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Метаданные версии новости, по которым проверяются условные запросы.
+ *
+ * @param id      id новости
+ * @param version версия новости
+ * @param updated время последнего изменения
+ */
+public record NewsVersionDto(
+        Long id,
+        Long version,
+        LocalDateTime updated
+) implements Serializable {
+}
@@ -0,0 +1,18 @@
+package ru.clevertec.news.model.dto;
+
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+
+import java.util.List;
+
+/**
+ * Страница новостей вместе с версиями новостей, из которых она собрана.
+ *
+ * @param page     страница новостей
+ * @param versions версии новостей страницы в том же порядке
+ */
+public record VersionedPageDto(
+        PageContentDto<NewsDto> page,
+        List<NewsVersionDto> versions
+) {
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -18,8 +19,16 @@ import java.time.LocalDateTime;
 @FieldNameConstants
 public class News {
 
+    /**
+     * Идентификатор из последовательности с pooled-оптимизатором: Hibernate резервирует
+     * сразу allocationSize значений, поэтому вставки можно отправлять пакетами
+     * (с IDENTITY пакетная вставка отключается). Значение по умолчанию на колонке
+     * оставлено для вставок в обход Hibernate.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = 50)
+    @Column(columnDefinition = "bigint default nextval('news_seq')")
     private Long id;
 
     @CreationTimestamp
@@ -29,4 +38,19 @@ public class News {
     private String title;
     private String text;
     private Long userId;
+
+    /**
+     * Версия новости, увеличивается при каждом изменении. Используется для оптимистичной
+     * блокировки и как основа ETag.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    /**
+     * Время последнего изменения новости, основа заголовка Last-Modified.
+     */
+    @UpdateTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime updated;
 }
\ No newline at end of file
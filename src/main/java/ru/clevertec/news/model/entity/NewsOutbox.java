@@ -0,0 +1,52 @@
+package ru.clevertec.news.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.clevertec.news.model.enums.NewsChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись об изменении новости, сохраняемая в той же транзакции, что и само изменение.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldNameConstants
+@Table(name = "news_outbox")
+public class NewsOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_outbox_seq")
+    @SequenceGenerator(name = "news_outbox_seq", sequenceName = "news_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private Long newsId;
+
+    @Enumerated(EnumType.STRING)
+    private NewsChangeType type;
+
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime time;
+
+    /**
+     * Номер изменения в ленте изменений. Назначается ретранслятором при публикации,
+     * до публикации - null. В отличие от id, номера идут в порядке публикации без пропусков,
+     * поэтому потребитель, читающий ленту после последнего полученного номера, ничего не пропустит.
+     */
+    @Column(unique = true)
+    private Long sequence;
+
+    public NewsOutbox(Long newsId, NewsChangeType type) {
+        this.newsId = newsId;
+        this.type = type;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.clevertec.news.model.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+
+/**
+ * Оценка популярности новости, по которой кэш новостей прогревается при запуске.
+ * Записывается запросами NewsPopularityRepository, которые складывают оценки всех экземпляров сервиса.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldNameConstants
+@Table(name = "news_popularity")
+public class NewsPopularity {
+
+    @Id
+    private Long newsId;
+
+    private Integer score;
+}
@@ -0,0 +1,22 @@
+package ru.clevertec.news.model.enums;
+
+/**
+ * Способ подсчета общего количества элементов при keyset-пагинации.
+ */
+public enum CountMode {
+
+    /**
+     * Подсчет не выполняется.
+     */
+    NONE,
+
+    /**
+     * Точный подсчет через count(*).
+     */
+    EXACT,
+
+    /**
+     * Оценка по статистике планировщика (pg_class.reltuples), без фильтров.
+     */
+    ESTIMATED
+}
@@ -0,0 +1,22 @@
+package ru.clevertec.news.model.enums;
+
+/**
+ * Тип изменения новости.
+ */
+public enum NewsChangeType {
+
+    /**
+     * Новость создана.
+     */
+    CREATED,
+
+    /**
+     * Новость отредактирована.
+     */
+    UPDATED,
+
+    /**
+     * Новость удалена.
+     */
+    DELETED
+}
@@ -0,0 +1,17 @@
+package ru.clevertec.news.model.enums;
+
+/**
+ * Способ поиска новостей по заголовку и тексту.
+ */
+public enum SearchMode {
+
+    /**
+     * Поиск подстроки через like '%fragment%'.
+     */
+    LIKE,
+
+    /**
+     * Полнотекстовый поиск PostgreSQL (tsvector/GIN) с ранжированием по релевантности.
+     */
+    FULL_TEXT
+}
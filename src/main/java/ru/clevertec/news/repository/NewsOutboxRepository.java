@@ -0,0 +1,40 @@
+package ru.clevertec.news.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.clevertec.news.model.entity.NewsOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NewsOutboxRepository extends JpaRepository<NewsOutbox, Long> {
+
+    /**
+     * Берет транзакционную advisory-блокировку ретранслятора, чтобы экземпляры сервиса
+     * назначали номера изменений по очереди.
+     */
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(hashtext('news_outbox_relay'))) relay_lock", nativeQuery = true)
+    long lockRelay();
+
+    @Query(value = "select * from news_outbox where sequence is null order by id limit :limit", nativeQuery = true)
+    List<NewsOutbox> findUnpublished(@Param("limit") int limit);
+
+    @Query("select coalesce(max(o.sequence), 0) from NewsOutbox o")
+    long findMaxSequence();
+
+    List<NewsOutbox> findBySequenceGreaterThanOrderBySequence(Long sequence, Pageable pageable);
+
+    /**
+     * Удаляет опубликованные записи, созданные раньше before. Запись с наибольшим номером остается,
+     * чтобы ретранслятор продолжал нумерацию, а не начинал ее заново.
+     */
+    @Modifying
+    @Query(value = "delete from news_outbox where sequence is not null and time < :before "
+            + "and sequence < (select max(sequence) from news_outbox)", nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,48 @@
+package ru.clevertec.news.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.clevertec.news.model.entity.NewsPopularity;
+
+import java.util.List;
+
+@Repository
+public interface NewsPopularityRepository extends JpaRepository<NewsPopularity, Long> {
+
+    @Query("select p.newsId from NewsPopularity p order by p.score desc, p.newsId")
+    List<Long> findTopIds(Pageable pageable);
+
+    /**
+     * Берет транзакционную advisory-блокировку news_popularity, чтобы экземпляры сервиса
+     * сохраняли свои оценки популярности по очереди.
+     */
+    @Query(value = "select count(*) from (select pg_advisory_xact_lock(hashtext('news_popularity'))) popularity_lock", nativeQuery = true)
+    long lockPopularity();
+
+    /**
+     * Уменьшает вдвое все сохраненные оценки, чтобы новости, которые перестали читать, уступали место новым.
+     */
+    @Modifying
+    @Query(value = "update news_popularity set score = score / 2", nativeQuery = true)
+    int age();
+
+    /**
+     * Добавляет оценку новости к сохраненной или сохраняет ее, если новости еще нет в таблице.
+     */
+    @Modifying
+    @Query(value = "insert into news_popularity (news_id, score) values (:newsId, :score) "
+            + "on conflict (news_id) do update set score = news_popularity.score + excluded.score", nativeQuery = true)
+    int merge(@Param("newsId") Long newsId, @Param("score") Integer score);
+
+    /**
+     * Удаляет все оценки, кроме limit наибольших.
+     */
+    @Modifying
+    @Query(value = "delete from news_popularity where news_id not in "
+            + "(select news_id from news_popularity order by score desc, news_id limit :limit)", nativeQuery = true)
+    int deleteAllExceptTop(@Param("limit") int limit);
+}
@@ -1,10 +1,48 @@
 package ru.clevertec.news.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.model.dto.NewsVersionDto;
 import ru.clevertec.news.model.entity.News;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface NewsRepository extends JpaRepository<News, Long>, JpaSpecificationExecutor<News> {
-}
\ No newline at end of file
+public interface NewsRepository extends JpaRepository<News, Long>, JpaSpecificationExecutor<News>, NewsRepositoryCustom {
+
+    @Query("select new ru.clevertec.news.model.dto.NewsVersionDto(n.id, n.version, n.updated) from News n where n.id = :id")
+    Optional<NewsVersionDto> findVersionById(@Param("id") Long id);
+
+    /**
+     * Возвращает позиции первых новостей автора в порядке time desc, id desc.
+     */
+    @Query("select new ru.clevertec.news.model.dto.NewsCursor(n.time, n.id) from News n where n.userId = :userId "
+            + "order by n.time desc, n.id desc")
+    List<NewsCursor> findTimeline(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Возвращает позиции новостей автора, идущих в ленте после позиции (time, id).
+     */
+    @Query("select new ru.clevertec.news.model.dto.NewsCursor(n.time, n.id) from News n where n.userId = :userId "
+            + "and n.time <= :time and (n.time < :time or n.time = :time and n.id < :id) "
+            + "order by n.time desc, n.id desc")
+    List<NewsCursor> findTimelineAfter(@Param("userId") Long userId, @Param("time") LocalDateTime time,
+                                       @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Удаляет новость по id одним запросом.
+     *
+     * @return количество удаленных новостей: 1 или 0, если новости не было
+     */
+    @Modifying
+    @Query("delete from News n where n.id = :id")
+    int deleteNewsById(@Param("id") Long id);
+}
@@ -0,0 +1,67 @@
+package ru.clevertec.news.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+import ru.clevertec.news.model.entity.News;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Дополнительные запросы к новостям, которые не выражаются через стандартные методы Spring Data.
+ */
+public interface NewsRepositoryCustom {
+
+    /**
+     * Возвращает первые limit новостей, удовлетворяющих спецификации,
+     * в порядке time desc, id desc без подсчета общего количества.
+     *
+     * @param specification спецификация фильтрации (включая условие курсора)
+     * @param limit         максимальное количество строк
+     * @return список новостей
+     */
+    List<News> findFirst(Specification<News> specification, int limit);
+
+    /**
+     * Возвращает id, версии и время изменения новостей страницы без чтения остальных колонок.
+     * Страница выбирается так же, как в findAll(specification, pageable), но без подсчета общего количества.
+     *
+     * @param specification спецификация фильтрации
+     * @param pageable      параметры страницы и сортировки
+     * @return версии новостей страницы
+     */
+    List<NewsVersionDto> findVersions(Specification<News> specification, Pageable pageable);
+
+    /**
+     * Возвращает новости, удовлетворяющие спецификации, в порядке id в виде потока,
+     * который читается серверным курсором порциями по fetch size. Прочитанные сущности
+     * отсоединяются от контекста персистентности, поэтому расход памяти не зависит от размера таблицы.
+     * Поток должен читаться внутри транзакции и быть закрыт после использования.
+     *
+     * @param specification спецификация фильтрации
+     * @return поток новостей
+     */
+    Stream<News> streamAll(Specification<News> specification);
+
+    /**
+     * Обновляет новость одним запросом UPDATE ... RETURNING, увеличивая версию и время изменения.
+     * В SET попадают только заданные поля: заголовок, текст и автор, равные null, не меняются.
+     * Время изменения берется из часов JVM, как и {@code @UpdateTimestamp} при вставке.
+     * Если передана ожидаемая версия, строка обновляется, только если ее версия совпадает с ожидаемой.
+     * Возвращенная новость не присоединяется к контексту персистентности.
+     *
+     * @param news            новость с id и новыми значениями полей
+     * @param expectedVersion ожидаемая версия новости или null, если версия не проверяется
+     * @return обновленная новость или пустой Optional, если новость не найдена или ее версия другая
+     */
+    Optional<News> updateReturning(News news, Long expectedVersion);
+
+    /**
+     * Возвращает оценку количества строк таблицы news по статистике планировщика.
+     *
+     * @return оценочное количество новостей
+     */
+    long estimateCount();
+}
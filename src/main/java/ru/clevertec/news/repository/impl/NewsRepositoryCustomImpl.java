@@ -0,0 +1,155 @@
+package ru.clevertec.news.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.repository.NewsRepositoryCustom;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Реализация дополнительных запросов к новостям через Criteria API.
+ */
+public class NewsRepositoryCustomImpl implements NewsRepositoryCustom {
+
+    /**
+     * Значение ожидаемой версии, при котором версия не проверяется.
+     */
+    private static final long ANY_VERSION = -1;
+
+    private static final String UPDATE_RETURNING_WHERE = "version = version + 1, updated = :updated "
+            + "where id = :id and (:expectedVersion < 0 or version = :expectedVersion) "
+            + "returning id, time, title, text, user_id, version, updated";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Количество строк, которое драйвер получает из курсора за одно обращение к БД.
+     */
+    @Value("${news.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public List<News> findFirst(Specification<News> specification, int limit) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(News.class);
+        var root = query.from(News.class);
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(
+                criteriaBuilder.desc(root.get(News.Fields.time)),
+                criteriaBuilder.desc(root.get(News.Fields.id))
+        );
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<NewsVersionDto> findVersions(Specification<News> specification, Pageable pageable) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(NewsVersionDto.class);
+        var root = query.from(News.class);
+        query.select(criteriaBuilder.construct(NewsVersionDto.class,
+                root.get(News.Fields.id), root.get(News.Fields.version), root.get(News.Fields.updated)));
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Stream<News> streamAll(Specification<News> specification) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(News.class);
+        var root = query.from(News.class);
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get(News.Fields.id)));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    public Optional<News> updateReturning(News news, Long expectedVersion) {
+        var sql = new StringBuilder("update news set ");
+        if (news.getTitle() != null) {
+            sql.append("title = :title, ");
+        }
+        if (news.getText() != null) {
+            sql.append("text = :text, ");
+        }
+        if (news.getUserId() != null) {
+            sql.append("user_id = :userId, ");
+        }
+        var query = entityManager.createNativeQuery(sql.append(UPDATE_RETURNING_WHERE).toString(), Tuple.class)
+                .setParameter("id", news.getId())
+                .setParameter("updated", LocalDateTime.now())
+                .setParameter("expectedVersion", expectedVersion == null ? ANY_VERSION : expectedVersion);
+        if (news.getTitle() != null) {
+            query.setParameter("title", news.getTitle());
+        }
+        if (news.getText() != null) {
+            query.setParameter("text", news.getText());
+        }
+        if (news.getUserId() != null) {
+            query.setParameter("userId", news.getUserId());
+        }
+        var rows = query.getResultList();
+        return rows.stream()
+                .map(Tuple.class::cast)
+                .map(row -> new News(
+                        row.get("id", Number.class).longValue(),
+                        toLocalDateTime(row.get("time")),
+                        row.get("title", String.class),
+                        row.get("text", String.class),
+                        toLong(row.get("user_id", Number.class)),
+                        row.get("version", Number.class).longValue(),
+                        toLocalDateTime(row.get("updated"))
+                ))
+                .findFirst();
+    }
+
+    @Override
+    public long estimateCount() {
+        var estimate = (Number) entityManager
+                .createNativeQuery("select greatest(reltuples, 0)::bigint from pg_class where oid = 'news'::regclass")
+                .getSingleResult();
+        return estimate.longValue();
+    }
+
+    private static Long toLong(Number value) {
+        return value == null ? null : value.longValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
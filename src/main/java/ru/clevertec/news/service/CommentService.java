@@ -0,0 +1,13 @@
+package ru.clevertec.news.service;
+
+import ru.clevertec.news.dto.CommentDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface CommentService {
+
+    CompletableFuture<List<CommentDto>> findByNewsIdAsync(Integer pageNumber, Integer pageSize, Long newsId);
+
+    void evictByNewsId(Long newsId);
+}
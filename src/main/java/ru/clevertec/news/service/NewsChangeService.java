@@ -0,0 +1,14 @@
+package ru.clevertec.news.service;
+
+import ru.clevertec.news.model.dto.NewsChangedEvent;
+
+import java.util.List;
+
+public interface NewsChangeService {
+
+    List<NewsChangedEvent> findChanges(Long since, int limit);
+
+    void relay();
+
+    void deletePublished();
+}
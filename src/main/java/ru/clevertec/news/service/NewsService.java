@@ -5,19 +5,40 @@ import ru.clevertec.news.dto.create.NewsCreateDto;
 import ru.clevertec.news.dto.page.PageContentDto;
 import ru.clevertec.news.dto.page.PageParamDto;
 import ru.clevertec.news.dto.update.NewsUpdateDto;
+import ru.clevertec.news.model.dto.CursorPageDto;
 import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+import ru.clevertec.news.model.dto.VersionedPageDto;
+import ru.clevertec.news.model.enums.CountMode;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface NewsService {
 
     NewsDto findNewsById(Long id);
 
+    List<NewsDto> findAllByIds(List<Long> ids);
+
+    NewsVersionDto findNewsVersion(Long id);
+
     NewsDto findNewsByIdWithComments(Integer pageNumber, Integer pageSize, Long id);
 
     PageContentDto<NewsDto> findAll(PageParamDto param, NewsFilterDto filter);
 
+    VersionedPageDto findAllWithVersions(PageParamDto param, NewsFilterDto filter);
+
+    PageContentDto<NewsVersionDto> findAllVersions(PageParamDto param, NewsFilterDto filter);
+
+    void exportAll(NewsFilterDto filter, Consumer<NewsDto> consumer);
+
+    CursorPageDto<NewsDto> findAllByCursor(String cursor, int pageSize, NewsFilterDto filter, CountMode countMode);
+
     NewsDto create(NewsCreateDto dto);
 
-    NewsDto update(NewsUpdateDto dto);
+    List<NewsDto> createAll(List<NewsCreateDto> dtos);
+
+    NewsDto update(NewsUpdateDto dto, Long expectedVersion);
 
     void delete(Long id);
 }
\ No newline at end of file
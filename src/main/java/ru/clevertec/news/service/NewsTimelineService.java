@@ -0,0 +1,9 @@
+package ru.clevertec.news.service;
+
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.model.dto.CursorPageDto;
+
+public interface NewsTimelineService {
+
+    CursorPageDto<NewsDto> findAllByUser(Long userId, String cursor, int pageSize);
+}
@@ -0,0 +1,9 @@
+package ru.clevertec.news.service;
+
+import reactor.core.publisher.Mono;
+import ru.clevertec.news.dto.NewsDto;
+
+public interface ReactiveNewsService {
+
+    Mono<NewsDto> findNewsByIdWithComments(Integer pageNumber, Integer pageSize, Long id);
+}
@@ -0,0 +1,221 @@
+package ru.clevertec.news.service.impl;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import ru.clevertec.news.cache.comment.CommentPageCache;
+import ru.clevertec.news.dto.CommentDto;
+import ru.clevertec.news.feign.CommentClient;
+import ru.clevertec.news.service.CommentService;
+import ru.clevertec.news.util.LatencyWindow;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Реализация сервисного слоя для получения комментариев к новостям из микросервиса комментариев.
+ * Вызовы микросервиса проходят через выключатель и ограничитель одновременных вызовов (ResilienceConfig),
+ * поэтому медленный или недоступный микросервис не занимает потоки и не задерживает выдачу новостей.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CommentServiceImpl implements CommentService {
+
+    private static final int HEDGE_WINDOW_SIZE = 1000;
+    private static final int HEDGE_MIN_SAMPLES = 100;
+    private static final Duration HEDGE_REFRESH_INTERVAL = Duration.ofSeconds(1);
+
+    private final CommentClient commentClient;
+    private final Executor newsTaskExecutor;
+    private final CommentPageCache commentPageCache;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker commentsCircuitBreaker;
+    private final Bulkhead commentsBulkhead;
+    private final LatencyWindow latencies = new LatencyWindow(HEDGE_WINDOW_SIZE, HEDGE_MIN_SAMPLES, HEDGE_REFRESH_INTERVAL);
+
+    /**
+     * Время, которое запрос новости готов ждать комментарии.
+     */
+    @Value("${news.comments.timeout:PT1S}")
+    private Duration timeout;
+
+    /**
+     * Отправлять повторный запрос, если первый не ответил за hedge-percentile времени последних ответов.
+     */
+    @Value("${news.comments.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    /**
+     * Процентиль времени ответа, после которого отправляется повторный запрос.
+     */
+    @Value("${news.comments.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    /**
+     * Асинхронно запрашивает страницу комментариев к новости.
+     * Страница, найденная в кэше, возвращается сразу, без обращения к микросервису комментариев.
+     * Если микросервис комментариев не ответил за отведенное время, вернул ошибку, разомкнут выключатель
+     * или занят ограничитель, возвращается последняя известная страница из кэша или пустой список,
+     * чтобы медленный микросервис не задерживал выдачу новости.
+     *
+     * @param pageNumber номер страницы комментариев
+     * @param pageSize   количество комментариев на странице
+     * @param newsId     id новости
+     * @return комментарии к новости
+     */
+    @Override
+    public CompletableFuture<List<CommentDto>> findByNewsIdAsync(Integer pageNumber, Integer pageSize, Long newsId) {
+        log.info("CommentService: find comments by news id: " + newsId);
+        Supplier<List<CommentDto>> loader = () -> commentsCircuitBreaker.executeSupplier(
+                () -> commentsBulkhead.executeSupplier(() -> fetch(pageNumber, pageSize, newsId)));
+        var stamp = commentPageCache.stamp();
+        var cached = commentPageCache.get(newsId, pageNumber, pageSize, loader);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return hedged(() -> call(pageNumber, pageSize, newsId))
+                .thenApply(comments -> {
+                    commentPageCache.put(newsId, pageNumber, pageSize, comments, stamp);
+                    return comments;
+                })
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((comments, e) -> {
+                    if (e != null) {
+                        return fallback(pageNumber, pageSize, newsId, e instanceof CompletionException ? e.getCause() : e);
+                    }
+                    if (comments == null) {
+                        meterRegistry.counter("news.comments.timeouts").increment();
+                        log.warn("CommentService: comments for news " + newsId + " timed out after " + timeout);
+                        return fallback(pageNumber, pageSize, newsId, null);
+                    }
+                    return comments;
+                });
+    }
+
+    /**
+     * Запускает запрос страницы комментариев в исполнителе, если его пропускают выключатель и ограничитель.
+     * Разрешения проверяются до постановки задачи в очередь, поэтому при отказе поток исполнителя не занимается.
+     * Если исполнитель переполнен, задача сразу отклоняется, и запрос завершается fallback с причиной rejected.
+     */
+    private CompletableFuture<List<CommentDto>> call(Integer pageNumber, Integer pageSize, Long newsId) {
+        Supplier<CompletionStage<List<CommentDto>>> call =
+                () -> CompletableFuture.supplyAsync(() -> fetch(pageNumber, pageSize, newsId), newsTaskExecutor);
+        return CircuitBreaker.decorateCompletionStage(commentsCircuitBreaker,
+                        Bulkhead.decorateCompletionStage(commentsBulkhead, call))
+                .get()
+                .toCompletableFuture();
+    }
+
+    /**
+     * Выполняет запрос и, если он не ответил за hedge-percentile времени последних успешных ответов,
+     * отправляет еще один; возвращается первый успешный ответ. Ошибка возвращается, только если
+     * завершились ошибкой все отправленные запросы. Повторный запрос проходит через тот же выключатель
+     * и ограничитель, поэтому при перегрузке микросервиса не отправляется.
+     * Повторный запрос отправляется прямо из потока таймера JDK: отправка только ставит задачу в исполнитель
+     * или получает отказ и не блокирует таймер.
+     */
+    private CompletableFuture<List<CommentDto>> hedged(Supplier<CompletableFuture<List<CommentDto>>> call) {
+        var delay = hedgeEnabled ? latencies.percentile(hedgePercentile) : null;
+        if (delay == null || delay.compareTo(timeout) >= 0) {
+            return call.get();
+        }
+        var result = new CompletableFuture<List<CommentDto>>();
+        var pending = new AtomicInteger(1);
+        call.get().whenComplete((comments, e) -> complete(result, pending, comments, e));
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, Runnable::run).execute(() -> {
+            if (result.isDone() || pending.getAndIncrement() == 0) {
+                return;
+            }
+            meterRegistry.counter("news.comments.hedges").increment();
+            try {
+                call.get().whenComplete((comments, e) -> complete(result, pending, comments, e));
+            } catch (RuntimeException e) {
+                complete(result, pending, null, e);
+            }
+        });
+        return result;
+    }
+
+    private static void complete(CompletableFuture<List<CommentDto>> result, AtomicInteger pending,
+                                 List<CommentDto> comments, Throwable e) {
+        if (e == null) {
+            result.complete(comments);
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Возвращает последнюю известную страницу комментариев или пустой список, записывая причину
+     * (timeout, circuit-open, bulkhead-full, rejected или error) в метрику news.comments.fallbacks.
+     */
+    private List<CommentDto> fallback(Integer pageNumber, Integer pageSize, Long newsId, Throwable e) {
+        var reason = e == null ? "timeout"
+                : e instanceof CallNotPermittedException ? "circuit-open"
+                : e instanceof BulkheadFullException ? "bulkhead-full"
+                : e instanceof TaskRejectedException ? "rejected"
+                : "error";
+        meterRegistry.counter("news.comments.fallbacks", "reason", reason).increment();
+        if (e != null) {
+            log.warn("CommentService: comments for news " + newsId + " are unavailable (" + reason + "): " + e.getMessage());
+        }
+        var last = commentPageCache.getLast(newsId, pageNumber, pageSize);
+        return last != null ? last : List.of();
+    }
+
+    /**
+     * Запрашивает страницу комментариев у микросервиса комментариев, записывая время ответа
+     * и его исход (success или error) в метрику news.comments.client.
+     *
+     * @param pageNumber номер страницы комментариев
+     * @param pageSize   количество комментариев на странице
+     * @param newsId     id новости
+     * @return комментарии к новости
+     */
+    private List<CommentDto> fetch(Integer pageNumber, Integer pageSize, Long newsId) {
+        var sample = Timer.start(meterRegistry);
+        var start = System.nanoTime();
+        var outcome = "success";
+        try {
+            var comments = commentClient.getByNewsId(pageNumber, pageSize, newsId).content();
+            latencies.record(System.nanoTime() - start);
+            return comments;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("news.comments.client")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Удаляет из кэша все страницы комментариев новости.
+     * Вызывается микросервисом комментариев при их изменении.
+     *
+     * @param newsId id новости
+     */
+    @Override
+    public void evictByNewsId(Long newsId) {
+        log.debug("CommentService: evict comments by news id: " + newsId);
+        commentPageCache.evict(newsId);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.clevertec.news.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.clevertec.news.model.dto.NewsChangedEvent;
+import ru.clevertec.news.model.entity.NewsOutbox;
+import ru.clevertec.news.repository.NewsOutboxRepository;
+import ru.clevertec.news.service.NewsChangeService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сервис ленты изменений новостей.
+ * Изменения записываются в таблицу news_outbox в транзакции самого изменения,
+ * а ретранслятор пачками назначает им номера и публикует {@link NewsChangedEvent}.
+ * Опубликованные изменения хранятся news.outbox.retention, после чего удаляются.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NewsChangeServiceImpl implements NewsChangeService {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final NewsOutboxRepository newsOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Количество записей, публикуемых ретранслятором за одну транзакцию.
+     */
+    @Value("${news.outbox.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Срок хранения опубликованных изменений.
+     */
+    @Value("${news.outbox.retention:P7D}")
+    private Duration retention;
+
+    /**
+     * Возвращает опубликованные изменения с номером больше since в порядке номеров.
+     *
+     * @param since номер последнего полученного изменения, 0 - с начала ленты
+     * @param limit максимальное количество изменений, не больше 1000
+     * @return изменения новостей
+     */
+    @Override
+    public List<NewsChangedEvent> findChanges(Long since, int limit) {
+        log.debug("NewsChangeService: find changes since: " + since);
+        return newsOutboxRepository.findBySequenceGreaterThanOrderBySequence(since,
+                        PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT))))
+                .stream()
+                .map(this::toEvent)
+                .toList();
+    }
+
+    /**
+     * Публикует неопубликованные изменения пачками по batchSize.
+     * Номера изменений назначаются под advisory-блокировкой, события рассылаются
+     * после фиксации транзакции, в которой назначены номера.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${news.outbox.relay-delay:PT1S}", initialDelayString = "${news.outbox.relay-delay:PT1S}")
+    public void relay() {
+        List<NewsChangedEvent> events;
+        do {
+            events = transactionTemplate.execute(status -> assignSequences());
+            events.forEach(eventPublisher::publishEvent);
+            if (!events.isEmpty()) {
+                log.debug("NewsChangeService: relayed changes: " + events.size());
+            }
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * Удаляет опубликованные изменения старше срока хранения.
+     * Потребитель, отставший больше чем на срок хранения, пропустит удаленные изменения.
+     */
+    @Override
+    @Scheduled(cron = "${news.outbox.retention-cron:0 0 3 * * *}")
+    public void deletePublished() {
+        var deleted = transactionTemplate.execute(status ->
+                newsOutboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.info("NewsChangeService: deleted published changes: " + deleted);
+    }
+
+    private List<NewsChangedEvent> assignSequences() {
+        newsOutboxRepository.lockRelay();
+        var batch = newsOutboxRepository.findUnpublished(batchSize);
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        var sequence = newsOutboxRepository.findMaxSequence();
+        for (var outbox : batch) {
+            outbox.setSequence(++sequence);
+        }
+        return newsOutboxRepository.saveAll(batch).stream()
+                .map(this::toEvent)
+                .toList();
+    }
+
+    private NewsChangedEvent toEvent(NewsOutbox outbox) {
+        return new NewsChangedEvent(outbox.getSequence(), outbox.getNewsId(), outbox.getType(), outbox.getTime());
+    }
+}
@@ -1,13 +1,20 @@
 package ru.clevertec.news.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import ru.clevertec.news.cache.batch.NewsBatchCache;
+import ru.clevertec.news.cache.timeline.AuthorTimelineCache;
+import ru.clevertec.news.config.properties.SearchProperties;
 import ru.clevertec.news.converter.NewsConverter;
 import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.dto.create.NewsCreateDto;
@@ -16,15 +23,36 @@ import ru.clevertec.news.dto.page.PageDto;
 import ru.clevertec.news.dto.page.PageParamDto;
 import ru.clevertec.news.dto.update.NewsUpdateDto;
 import ru.clevertec.news.dto.util.PageUtils;
+import ru.clevertec.news.exception.BatchSizeExceededException;
 import ru.clevertec.news.exception.EntityNotFoundException;
-import ru.clevertec.news.feign.CommentClient;
+import ru.clevertec.news.exception.VersionConflictException;
+import ru.clevertec.news.model.dto.CursorPageDto;
+import ru.clevertec.news.model.dto.NewsCursor;
 import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+import ru.clevertec.news.model.dto.VersionedPageDto;
 import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.model.entity.NewsOutbox;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.model.enums.NewsChangeType;
+import ru.clevertec.news.model.enums.SearchMode;
+import ru.clevertec.news.repository.NewsOutboxRepository;
 import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.CommentService;
 import ru.clevertec.news.service.NewsService;
 import ru.clevertec.news.specification.NewsSpecification;
+import ru.clevertec.news.util.CursorUtils;
+import ru.clevertec.news.util.TransactionUtils;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Реализация сервисного слоя для работы с новостями.
@@ -33,14 +61,31 @@ import java.util.List;
 @Service
 @Transactional
 @AllArgsConstructor
+@Timed(value = "news.service", histogram = true)
 public class NewsServiceImpl implements NewsService {
 
+    /**
+     * Максимальное количество id в пакетном запросе новостей.
+     */
+    public static final int BATCH_MAX_SIZE = 100;
+
+    /**
+     * Максимальное количество новостей в пакетном создании.
+     */
+    public static final int BULK_MAX_SIZE = 1000;
+
     private final NewsRepository newsRepository;
+    private final NewsOutboxRepository newsOutboxRepository;
     private final NewsConverter newsConverter;
-    private final CommentClient commentClient;
+    private final CommentService commentService;
+    private final SearchProperties searchProperties;
+    private final AuthorTimelineCache authorTimelineCache;
+    private final NewsBatchCache newsBatchCache;
 
     /**
      * Возвращает информацию о новости по заданному id.
+     * Двухуровневый кэш news при промахе сам загружает новость через {@link #loadNewsById}, по одной загрузке
+     * на id, и заранее обновляет ее в конце времени жизни записи.
      *
      * @param id новости
      * @return информация о новости
@@ -49,14 +94,83 @@ public class NewsServiceImpl implements NewsService {
     @Cacheable(value = "news", key = "#id")
     @Override
     public NewsDto findNewsById(Long id) {
+        return loadNewsById(id);
+    }
+
+    /**
+     * Загружает новость по id из БД без кэша. Загрузчик двухуровневого кэша news.
+     *
+     * @param id новости
+     * @return информация о новости
+     * @throws EntityNotFoundException если новость не найдена
+     */
+    public NewsDto loadNewsById(Long id) {
         log.info("NewsService: find news by id: " + id);
         var news = newsConverter.convert(newsRepository.findById(id).orElseThrow(EntityNotFoundException::new));
         news.setComments(null);
         return news;
     }
 
+    /**
+     * Возвращает новости по набору id в порядке переданных id.
+     * Все id ищутся в кэше новостей одним пакетным обращением, отсутствующие в кэше новости
+     * читаются из БД одним запросом и пакетом кладутся в кэш. Ненайденные id пропускаются,
+     * повторяющиеся id дают повторяющиеся новости.
+     *
+     * @param ids id новостей, не больше {@link #BATCH_MAX_SIZE} различных
+     * @return найденные новости
+     * @throws BatchSizeExceededException если различных id больше {@link #BATCH_MAX_SIZE}
+     */
+    @Override
+    public List<NewsDto> findAllByIds(List<Long> ids) {
+        var uniqueIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.size() > BATCH_MAX_SIZE) {
+            throw new BatchSizeExceededException(BATCH_MAX_SIZE);
+        }
+        log.debug("NewsService: find news by ids: " + uniqueIds.size());
+        if (uniqueIds.isEmpty()) {
+            return List.of();
+        }
+        var found = new HashMap<>(newsBatchCache.getAll(uniqueIds));
+        var misses = uniqueIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        if (!misses.isEmpty()) {
+            var loaded = newsRepository.findAllById(misses).stream()
+                    .map(newsConverter::convert)
+                    .peek(news -> news.setComments(null))
+                    .collect(Collectors.toMap(NewsDto::getId, Function.identity()));
+            newsBatchCache.putAll(loaded);
+            found.putAll(loaded);
+        }
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Возвращает версию новости по заданному id без чтения самой новости.
+     * Результат кэшируется и сбрасывается при изменении и удалении новости.
+     *
+     * @param id новости
+     * @return версия новости
+     * @throws EntityNotFoundException если новость не найдена
+     */
+    @Cacheable(value = "newsVersion", key = "#id")
+    @Override
+    public NewsVersionDto findNewsVersion(Long id) {
+        log.debug("NewsService: find news version by id: " + id);
+        return newsRepository.findVersionById(id).orElseThrow(EntityNotFoundException::new);
+    }
+
     /**
      * Возвращает информацию о новости по заданному id вместе с комментариями.
+     * Комментарии запрашиваются параллельно с загрузкой новости, вне транзакции,
+     * чтобы соединение с БД не удерживалось на время обращения к микросервису комментариев.
      *
      * @param pageNumber смещение страницы комментариев
      * @param pageSize   лимит элементов на странице комментариев
@@ -65,15 +179,24 @@ public class NewsServiceImpl implements NewsService {
      * @throws EntityNotFoundException если новость не найдена
      */
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public NewsDto findNewsByIdWithComments(Integer pageNumber, Integer pageSize, Long id) {
         log.info("NewsService: find news with comments by id: " + id);
+        var comments = commentService.findByNewsIdAsync(pageNumber, pageSize, id);
         var news = newsConverter.convert(newsRepository.findById(id).orElseThrow(EntityNotFoundException::new));
-        news.setComments(commentClient.getByNewsId(pageNumber, pageSize, id).content());
+        try {
+            news.setComments(comments.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
         return news;
     }
 
     /**
      * Находит все новости с применением пагинации и фильтрации.
+     * В режиме полнотекстового поиска новости сортируются по релевантности, а если по фильтру
+     * не найдено ни одной новости и включен fallback, поиск повторяется по подстроке.
+     * Пустая страница за концом результатов поиск не повторяет.
      *
      * @param param  параметры для пагинации, включая номер страницы и размер страницы
      * @param filter объект, содержащий критерии фильтрации новостей
@@ -81,54 +204,247 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     public PageContentDto<NewsDto> findAll(PageParamDto param, NewsFilterDto filter) {
+        return findAllWithVersions(param, filter).page();
+    }
+
+    /**
+     * Находит страницу новостей так же, как findAll, и возвращает вместе с ней версии загруженных новостей.
+     * Версии берутся из тех же сущностей, что и страница, поэтому ETag по ним соответствует телу ответа
+     * и не требует отдельного запроса версий.
+     *
+     * @param param  параметры для пагинации, включая номер страницы и размер страницы
+     * @param filter объект, содержащий критерии фильтрации новостей
+     * @return страница новостей и версии новостей страницы
+     */
+    @Override
+    public VersionedPageDto findAllWithVersions(PageParamDto param, NewsFilterDto filter) {
         var pageable = PageUtils.page(param);
-        var specification = Specification.where(NewsSpecification.findAll(filter));
-        Page<News> page = newsRepository.findAll(specification, pageable);
-        return new PageContentDto<>(
-                new PageDto(param.pageNumber(), param.pageSize(), page.getTotalPages(), page.getTotalElements()),
-                page.getContent().isEmpty()
-                        ? List.of()
-                        : newsConverter.convertToList(page.getContent())
+        Page<News> page = newsRepository.findAll(filterSpecification(filter), pageable);
+        if (page.getTotalElements() == 0 && isFullTextSearch(filter) && searchProperties.likeFallback()) {
+            log.debug("NewsService: full-text search found nothing, fallback to like: " + filter);
+            page = newsRepository.findAll(Specification.where(NewsSpecification.findAll(filter)), pageable);
+        }
+        var content = page.getContent();
+        return new VersionedPageDto(
+                new PageContentDto<>(
+                        new PageDto(param.pageNumber(), param.pageSize(), page.getTotalPages(), page.getTotalElements()),
+                        content.isEmpty()
+                                ? List.of()
+                                : newsConverter.convertToList(content)
+                ),
+                content.stream()
+                        .map(news -> new NewsVersionDto(news.getId(), news.getVersion(), news.getUpdated()))
+                        .toList()
+        );
+    }
+
+    /**
+     * Возвращает версии новостей той же страницы, что и findAll, без чтения текста новостей
+     * и без преобразования в NewsDto.
+     *
+     * @param param  параметры для пагинации, включая номер страницы и размер страницы
+     * @param filter объект, содержащий критерии фильтрации новостей
+     * @return версии новостей страницы с информацией о пагинации
+     */
+    @Override
+    public PageContentDto<NewsVersionDto> findAllVersions(PageParamDto param, NewsFilterDto filter) {
+        var pageable = PageUtils.page(param);
+        var specification = filterSpecification(filter);
+        var total = newsRepository.count(specification);
+        if (total == 0 && isFullTextSearch(filter) && searchProperties.likeFallback()) {
+            specification = Specification.where(NewsSpecification.findAll(filter));
+            total = newsRepository.count(specification);
+        }
+        var versions = total == 0 ? List.<NewsVersionDto>of() : newsRepository.findVersions(specification, pageable);
+        var totalPages = (int) Math.ceil((double) total / param.pageSize());
+        return new PageContentDto<>(new PageDto(param.pageNumber(), param.pageSize(), totalPages, total), versions);
+    }
+
+    /**
+     * Передает потребителю все новости, удовлетворяющие фильтру, по одной.
+     * Новости читаются серверным курсором в одной транзакции и не накапливаются в памяти.
+     * Как и в findAll, если полнотекстовый поиск ничего не нашел и включен fallback, поиск повторяется по подстроке.
+     *
+     * @param filter   объект, содержащий критерии фильтрации новостей
+     * @param consumer потребитель новостей
+     */
+    @Override
+    public void exportAll(NewsFilterDto filter, Consumer<NewsDto> consumer) {
+        log.info("NewsService: export news: " + filter);
+        var exported = export(filterSpecification(filter), consumer);
+        if (exported == 0 && isFullTextSearch(filter) && searchProperties.likeFallback()) {
+            log.debug("NewsService: full-text export found nothing, fallback to like: " + filter);
+            export(Specification.where(NewsSpecification.findAll(filter)), consumer);
+        }
+    }
+
+    private long export(Specification<News> specification, Consumer<NewsDto> consumer) {
+        var exported = new AtomicLong();
+        try (var news = newsRepository.streamAll(specification)) {
+            news.map(newsConverter::convert).forEach(newsDto -> {
+                consumer.accept(newsDto);
+                exported.incrementAndGet();
+            });
+        }
+        return exported.get();
+    }
+
+    /**
+     * Находит новости с применением keyset-пагинации и фильтрации.
+     * Вместо offset выбирает строки, идущие после курсора, поэтому стоимость запроса
+     * не зависит от глубины страницы.
+     *
+     * @param cursor    курсор, полученный с предыдущей страницы, или null для первой страницы
+     * @param pageSize  количество элементов на странице
+     * @param filter    объект, содержащий критерии фильтрации новостей
+     * @param countMode способ подсчета общего количества новостей
+     * @return объект типа {@link CursorPageDto} с новостями и курсором следующей страницы
+     * @throws ru.clevertec.news.exception.InvalidCursorException если курсор поврежден
+     */
+    @Override
+    public CursorPageDto<NewsDto> findAllByCursor(String cursor, int pageSize, NewsFilterDto filter, CountMode countMode) {
+        var specification = filterSpecification(filter);
+        var seek = cursor == null || cursor.isEmpty()
+                ? specification
+                : specification.and(NewsSpecification.after(CursorUtils.decode(cursor)));
+        var content = newsRepository.findFirst(seek, pageSize + 1);
+        var hasNext = content.size() > pageSize;
+        if (hasNext) {
+            content = content.subList(0, pageSize);
+        }
+        return new CursorPageDto<>(
+                content.isEmpty() ? List.of() : newsConverter.convertToList(content),
+                hasNext ? CursorUtils.encode(content.get(content.size() - 1)) : null,
+                count(specification, filter, countMode)
         );
     }
 
     /**
      * Создает новую новость на основе данных из DTO.
+     * Созданная новость сразу кладется в кэш по своему id, а в закэшированную ленту автора - после фиксации транзакции.
      *
      * @param dto данные для создания новости
      * @return созданная новость
      */
-    @CacheEvict(value = "news", key = "#dto.userId")
+    @CachePut(value = "news", key = "#result.id")
     @Override
     public NewsDto create(NewsCreateDto dto) {
         log.debug("NewsService: create news: " + dto);
-        return newsConverter.convert(newsRepository.save(newsConverter.convert(dto)));
+        var news = newsRepository.save(newsConverter.convert(dto));
+        newsOutboxRepository.save(new NewsOutbox(news.getId(), NewsChangeType.CREATED));
+        TransactionUtils.afterCommit(() -> addToTimeline(news));
+        return newsConverter.convert(news);
+    }
+
+    /**
+     * Создает новости пакетом в одной транзакции.
+     * Идентификаторы берутся из последовательности блоками, поэтому Hibernate может отправлять
+     * вставки пакетными запросами. Пакеты включаются только настройками приложения, без них каждая
+     * новость вставляется отдельным запросом:
+     * <pre>
+     * spring.jpa.properties.hibernate.jdbc.batch_size=50
+     * spring.jpa.properties.hibernate.order_inserts=true
+     * </pre>
+     * С reWriteBatchedInserts=true в URL подключения драйвер PostgreSQL отправляет пакет одним insert на много строк.
+     * В закэшированные ленты авторов новости добавляются после фиксации транзакции.
+     *
+     * @param dtos данные для создания новостей, не больше {@link #BULK_MAX_SIZE}
+     * @return созданные новости в порядке переданных данных
+     * @throws BatchSizeExceededException если новостей больше {@link #BULK_MAX_SIZE}
+     */
+    @Override
+    public List<NewsDto> createAll(List<NewsCreateDto> dtos) {
+        log.debug("NewsService: create news bulk: " + dtos.size());
+        if (dtos.size() > BULK_MAX_SIZE) {
+            throw new BatchSizeExceededException(BULK_MAX_SIZE);
+        }
+        if (dtos.isEmpty()) {
+            return List.of();
+        }
+        var news = newsRepository.saveAll(newsConverter.convertToEntityList(dtos));
+        newsOutboxRepository.saveAll(news.stream()
+                .map(created -> new NewsOutbox(created.getId(), NewsChangeType.CREATED))
+                .toList());
+        TransactionUtils.afterCommit(() -> news.forEach(this::addToTimeline));
+        return newsConverter.convertToList(news);
     }
 
     /**
-     * Обновляет информацию о новости на основе данных из DTO.
+     * Обновляет информацию о новости на основе данных из DTO одним запросом UPDATE ... RETURNING,
+     * без предварительного чтения новости и проверки изменений всей сущности.
+     * Меняются только поля, заданные в DTO; поля, равные null, остаются прежними.
+     * Запись кэша по id новости заменяется обновленной новостью, кэшированная версия сбрасывается,
+     * а если сменился автор, позиция новости переносится в ленту нового автора после фиксации транзакции.
      *
-     * @param newsUpdateDto данные для обновления новости
+     * @param newsUpdateDto   данные для обновления новости
+     * @param expectedVersion версия новости, которую видел клиент, или null, если версия не проверяется
      * @return обновленная новость
-     * @throws EntityNotFoundException если новость не найдена
+     * @throws EntityNotFoundException  если новость не найдена
+     * @throws VersionConflictException если версия новости отличается от ожидаемой
      */
-    @CacheEvict(value = "news", key = "#newsUpdateDto.id")
+    @Caching(
+            put = @CachePut(value = "news", key = "#result.id"),
+            evict = @CacheEvict(value = "newsVersion", key = "#result.id")
+    )
     @Override
-    public NewsDto update(NewsUpdateDto newsUpdateDto) {
+    public NewsDto update(NewsUpdateDto newsUpdateDto, Long expectedVersion) {
         log.debug("NewsService: update news: " + newsUpdateDto);
-        var news = newsRepository.findById(newsUpdateDto.getId()).orElseThrow(EntityNotFoundException::new);
-        return newsConverter.convert(newsRepository.save(newsConverter.merge(news, newsUpdateDto)));
+        var updated = newsRepository.updateReturning(newsConverter.merge(new News(), newsUpdateDto), expectedVersion)
+                .orElseThrow(() -> expectedVersion != null && newsRepository.existsById(newsUpdateDto.getId())
+                        ? new VersionConflictException()
+                        : new EntityNotFoundException());
+        newsOutboxRepository.save(new NewsOutbox(updated.getId(), NewsChangeType.UPDATED));
+        TransactionUtils.afterCommit(() -> {
+            authorTimelineCache.remove(updated.getId());
+            addToTimeline(updated);
+        });
+        return newsConverter.convert(updated);
     }
 
     /**
      * Удаляет новость по заданному id.
+     * Из кэша удаляются только запись и версия этой новости, из ленты автора - только ее позиция,
+     * после фиксации транзакции.
+     * Изменение DELETED записывается в ленту изменений, только если новость действительно была удалена.
      *
      * @param id новости
      */
     @Override
-    @CacheEvict(value = "news", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "news", key = "#id"),
+            @CacheEvict(value = "newsVersion", key = "#id")
+    })
     public void delete(Long id) {
         log.debug("NewsService: delete news by id: " + id);
-        newsRepository.deleteById(id);
+        if (newsRepository.deleteNewsById(id) == 0) {
+            log.debug("NewsService: news to delete not found: " + id);
+            return;
+        }
+        newsOutboxRepository.save(new NewsOutbox(id, NewsChangeType.DELETED));
+        TransactionUtils.afterCommit(() -> authorTimelineCache.remove(id));
+    }
+
+    private void addToTimeline(News news) {
+        authorTimelineCache.add(news.getUserId(), new NewsCursor(news.getTime(), news.getId()));
+    }
+
+    private Specification<News> filterSpecification(NewsFilterDto filter) {
+        return searchProperties.mode() == SearchMode.FULL_TEXT
+                ? Specification.where(NewsSpecification.search(filter))
+                : Specification.where(NewsSpecification.findAll(filter));
+    }
+
+    private boolean isFullTextSearch(NewsFilterDto filter) {
+        return searchProperties.mode() == SearchMode.FULL_TEXT && !StringUtils.isAllEmpty(filter.title(), filter.text());
+    }
+
+    private Long count(Specification<News> specification, NewsFilterDto filter, CountMode countMode) {
+        return switch (countMode) {
+            case NONE -> null;
+            case EXACT -> newsRepository.count(specification);
+            case ESTIMATED -> StringUtils.isAllEmpty(filter.title(), filter.text())
+                    ? newsRepository.estimateCount()
+                    : newsRepository.count(specification);
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package ru.clevertec.news.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.clevertec.news.cache.timeline.AuthorTimeline;
+import ru.clevertec.news.cache.timeline.AuthorTimelineCache;
+import ru.clevertec.news.constant.Constant;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.exception.InvalidPageSizeException;
+import ru.clevertec.news.model.dto.CursorPageDto;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.service.NewsTimelineService;
+import ru.clevertec.news.util.CursorUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис лент новостей авторов.
+ * Позиции новостей берутся из {@link AuthorTimelineCache}, а сами новости - через
+ * {@link NewsService#findAllByIds}, то есть из кэша новостей. В БД за позициями сервис обращается,
+ * только если ленты автора нет в кэше или страница уходит дальше закэшированного начала ленты.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NewsTimelineServiceImpl implements NewsTimelineService {
+
+    private final NewsRepository newsRepository;
+    private final NewsService newsService;
+    private final AuthorTimelineCache authorTimelineCache;
+
+    /**
+     * Возвращает страницу новостей автора с keyset-пагинацией в порядке time desc, id desc.
+     *
+     * @param userId   id автора
+     * @param cursor   курсор, полученный с предыдущей страницы, или null для первой страницы
+     * @param pageSize количество элементов на странице, от 1 до {@link Constant#LIMIT_MAX}
+     * @return объект типа {@link CursorPageDto} с новостями и курсором следующей страницы, без общего количества
+     * @throws ru.clevertec.news.exception.InvalidCursorException если курсор поврежден
+     * @throws InvalidPageSizeException                           если размер страницы вне допустимых пределов
+     */
+    @Override
+    public CursorPageDto<NewsDto> findAllByUser(Long userId, String cursor, int pageSize) {
+        log.debug("NewsTimelineService: find news by user: " + userId);
+        if (pageSize < 1 || pageSize > Constant.LIMIT_MAX) {
+            throw new InvalidPageSizeException(Constant.LIMIT_MAX);
+        }
+        var after = cursor == null || cursor.isEmpty() ? null : CursorUtils.decode(cursor);
+        var timeline = timeline(userId);
+        var entries = timeline.after(after, pageSize + 1);
+        if (entries.size() <= pageSize && !timeline.complete()) {
+            entries = after == null
+                    ? newsRepository.findTimeline(userId, PageRequest.of(0, pageSize + 1))
+                    : newsRepository.findTimelineAfter(userId, after.time(), after.id(), PageRequest.of(0, pageSize + 1));
+        }
+        var hasNext = entries.size() > pageSize;
+        if (hasNext) {
+            entries = entries.subList(0, pageSize);
+        }
+        return new CursorPageDto<>(
+                hydrate(entries),
+                hasNext ? CursorUtils.encode(entries.get(entries.size() - 1)) : null,
+                null
+        );
+    }
+
+    private AuthorTimeline timeline(Long userId) {
+        var timeline = authorTimelineCache.get(userId);
+        if (timeline != null) {
+            return timeline;
+        }
+        var maxItems = authorTimelineCache.maxItems();
+        var stamp = authorTimelineCache.stamp();
+        var entries = newsRepository.findTimeline(userId, PageRequest.of(0, maxItems + 1));
+        timeline = entries.size() > maxItems
+                ? new AuthorTimeline(List.copyOf(entries.subList(0, maxItems)), false)
+                : new AuthorTimeline(List.copyOf(entries), true);
+        authorTimelineCache.put(userId, timeline, stamp);
+        return timeline;
+    }
+
+    /**
+     * Загружает новости по позициям пакетными обращениями к кэшу новостей
+     * не больше чем по {@link NewsServiceImpl#BATCH_MAX_SIZE} id.
+     * Новость, удаленная после чтения позиций, пропускается.
+     */
+    private List<NewsDto> hydrate(List<NewsCursor> entries) {
+        var ids = entries.stream().map(NewsCursor::id).toList();
+        var news = new ArrayList<NewsDto>(ids.size());
+        for (int from = 0; from < ids.size(); from += NewsServiceImpl.BATCH_MAX_SIZE) {
+            news.addAll(newsService.findAllByIds(ids.subList(from, Math.min(from + NewsServiceImpl.BATCH_MAX_SIZE, ids.size()))));
+        }
+        return news;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.clevertec.news.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.clevertec.news.cache.comment.CommentPageCache;
+import ru.clevertec.news.converter.NewsConverter;
+import ru.clevertec.news.dto.CommentDto;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.page.PageContentDto;
+import ru.clevertec.news.exception.EntityNotFoundException;
+import ru.clevertec.news.feign.ReactiveCommentClient;
+import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.ReactiveNewsService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Неблокирующая реализация получения новости с комментариями.
+ * Комментарии запрашиваются через {@link ReactiveCommentClient} без занятия потока на время ожидания ответа,
+ * новость читается из БД в пуле boundedElastic, так как JPA блокирует поток.
+ * Включается при news.comments.reactive.enabled=true вместо {@link NewsServiceImpl#findNewsByIdWithComments}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "news.comments.reactive.enabled", havingValue = "true")
+public class ReactiveNewsServiceImpl implements ReactiveNewsService {
+
+    private final NewsRepository newsRepository;
+    private final NewsConverter newsConverter;
+    private final ReactiveCommentClient reactiveCommentClient;
+    private final CommentPageCache commentPageCache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Время, которое запрос новости готов ждать комментарии.
+     */
+    @Value("${news.comments.timeout:PT1S}")
+    private Duration timeout;
+
+    /**
+     * Возвращает информацию о новости по заданному id вместе с комментариями.
+     * Новость и комментарии запрашиваются параллельно; если новость не найдена, запрос комментариев отменяется.
+     *
+     * @param pageNumber смещение страницы комментариев
+     * @param pageSize   лимит элементов на странице комментариев
+     * @param id         id новости
+     * @return информация о новости с комментариями или ошибка {@link EntityNotFoundException}, если новость не найдена
+     */
+    @Override
+    public Mono<NewsDto> findNewsByIdWithComments(Integer pageNumber, Integer pageSize, Long id) {
+        log.info("ReactiveNewsService: find news with comments by id: " + id);
+        var news = Mono.fromCallable(() -> newsConverter.convert(newsRepository.findById(id)
+                        .orElseThrow(EntityNotFoundException::new)))
+                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.zip(news, findComments(pageNumber, pageSize, id))
+                .map(tuple -> {
+                    var newsDto = tuple.getT1();
+                    newsDto.setComments(tuple.getT2());
+                    return newsDto;
+                });
+    }
+
+    /**
+     * Возвращает страницу комментариев из кэша или из микросервиса комментариев.
+     * Если микросервис не ответил за отведенное время, запрос к нему отменяется; при таймауте и при любой
+     * ошибке микросервиса возвращается последняя известная страница из кэша или пустой список.
+     * Устаревшая запись кэша обновляется в фоне блокирующим вызовом в исполнителе кэша.
+     */
+    private Mono<List<CommentDto>> findComments(Integer pageNumber, Integer pageSize, Long newsId) {
+        return Mono.defer(() -> {
+            Supplier<List<CommentDto>> loader = () -> fetch(pageNumber, pageSize, newsId).block();
+            var stamp = commentPageCache.stamp();
+            var cached = commentPageCache.get(newsId, pageNumber, pageSize, loader);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return fetch(pageNumber, pageSize, newsId)
+                    .doOnNext(comments -> commentPageCache.put(newsId, pageNumber, pageSize, comments, stamp))
+                    .timeout(timeout)
+                    .onErrorResume(e -> Mono.just(fallback(pageNumber, pageSize, newsId, e)));
+        });
+    }
+
+    /**
+     * Возвращает последнюю известную страницу комментариев или пустой список, записывая причину
+     * (timeout или error) в метрику news.comments.fallbacks, как и блокирующий CommentService.
+     */
+    private List<CommentDto> fallback(Integer pageNumber, Integer pageSize, Long newsId, Throwable e) {
+        if (e instanceof TimeoutException) {
+            meterRegistry.counter("news.comments.timeouts").increment();
+            meterRegistry.counter("news.comments.fallbacks", "reason", "timeout").increment();
+            log.warn("ReactiveNewsService: comments for news " + newsId + " timed out after " + timeout);
+        } else {
+            meterRegistry.counter("news.comments.fallbacks", "reason", "error").increment();
+            log.warn("ReactiveNewsService: comments for news " + newsId + " are unavailable (error): " + e.getMessage());
+        }
+        var last = commentPageCache.getLast(newsId, pageNumber, pageSize);
+        return last != null ? last : List.of();
+    }
+
+    /**
+     * Запрашивает страницу комментариев у микросервиса комментариев, записывая время ответа
+     * и его исход (success, error или cancelled) в метрику news.comments.client.
+     */
+    private Mono<List<CommentDto>> fetch(Integer pageNumber, Integer pageSize, Long newsId) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return reactiveCommentClient.getByNewsId(pageNumber, pageSize, newsId)
+                    .map(PageContentDto::content)
+                    .doOnSuccess(comments -> stop(sample, "success"))
+                    .doOnError(e -> stop(sample, "error"))
+                    .doOnCancel(() -> stop(sample, "cancelled"));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("news.comments.client")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
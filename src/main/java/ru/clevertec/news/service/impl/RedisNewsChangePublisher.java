@@ -0,0 +1,42 @@
+package ru.clevertec.news.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import ru.clevertec.news.model.dto.NewsChangedEvent;
+
+/**
+ * Пересылает события изменения новостей в канал Redis для внешних потребителей.
+ * Потерянное сообщение потребитель восстанавливает через GET /api/news/changes.
+ */
+@Slf4j
+@Component
+@Profile({"!dev"})
+public class RedisNewsChangePublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public RedisNewsChangePublisher(StringRedisTemplate stringRedisTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${news.outbox.channel:news-changes}") String channel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    @EventListener
+    public void publish(NewsChangedEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("RedisNewsChangePublisher: failed to publish change " + event.sequence() + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,21 +1,67 @@
 package ru.clevertec.news.service.proxy;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
 import ru.clevertec.news.dto.NewsDto;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
 @Slf4j
 @Aspect
-@AllArgsConstructor
 public class NewsProxyService {
 
+    private static final String CACHE_NAME = "news";
+
     private final Cache<Long, NewsDto> cache;
 
+    /**
+     * Время жизни и заблаговременное обновление записей; null - записи не истекают.
+     */
+    private final RefreshAhead refreshAhead;
+
+    /**
+     * Загрузки из оригинального сервиса, которые выполняются в данный момент, по id новости.
+     */
+    private final ConcurrentMap<Long, CompletableFuture<NewsDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+
+    public NewsProxyService(Cache<Long, NewsDto> cache, MeterRegistry meterRegistry) {
+        this(cache, meterRegistry, null);
+    }
+
+    public NewsProxyService(Cache<Long, NewsDto> cache, MeterRegistry meterRegistry, RefreshAhead refreshAhead) {
+        this.cache = cache;
+        this.refreshAhead = refreshAhead;
+        this.hits = Counter.builder("cache.gets").tags("cache", CACHE_NAME, "tier", "l1", "result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tags("cache", CACHE_NAME, "tier", "l1", "result", "miss").register(meterRegistry);
+        this.puts = Counter.builder("cache.puts").tags("cache", CACHE_NAME).register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tags("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.loads.in.flight", inFlight, ConcurrentMap::size).tags("cache", CACHE_NAME).register(meterRegistry);
+        if (refreshAhead != null) {
+            FunctionCounter.builder("cache.refreshes", refreshAhead, RefreshAhead::refreshes)
+                    .tags("cache", CACHE_NAME)
+                    .register(meterRegistry);
+        }
+    }
+
     @Override
     public int hashCode() {
         return super.hashCode();
@@ -45,6 +91,10 @@ public class NewsProxyService {
      * Возвращает объект NewsDto по указанному идентификатору.
      * Если объект есть в кэше, метод возвращает его из кэша.
      * В противном случае, вызывает метод из оригинального сервиса и кэширует результат.
+     * Одновременные промахи по одному id разделяют одну загрузку: оригинальный метод вызывает
+     * только первый поток, остальные ждут его результат.
+     * Если задано время жизни записей, истекшая запись загружается заново, а запись, прочитанная
+     * в конце своего времени жизни, обновляется в фоне, и читатель получает текущее значение без ожидания.
      *
      * @param pjp прокси-объект для вызова оригинального метода
      * @return объект NewsDto
@@ -54,12 +104,38 @@ public class NewsProxyService {
     public Object doGet(ProceedingJoinPoint pjp) throws Throwable {
         log.debug("Proxy news aop: get method");
         var id = (Long) pjp.getArgs()[0];
-        if (cache.get(id) == null) {
-            var newsDto = (NewsDto) pjp.proceed();
-            cache.put(id, newsDto);
+        var newsDto = cache.get(id);
+        if (newsDto != null && refreshAhead != null && refreshAhead.isExpired(id)) {
+            cache.remove(id);
+            refreshAhead.forget(id);
+            newsDto = null;
+        }
+        if (newsDto != null) {
+            hits.increment();
+            if (refreshAhead != null) {
+                refreshAhead.refreshIfDue(id, loader(pjp), (key, value) -> store(id, (NewsDto) value));
+            }
             return newsDto;
-        } else {
-            return cache.get(id);
+        }
+        misses.increment();
+        var load = new CompletableFuture<NewsDto>();
+        var inFlightLoad = inFlight.putIfAbsent(id, load);
+        if (inFlightLoad != null) {
+            return await(inFlightLoad);
+        }
+        try {
+            newsDto = cache.get(id);
+            if (newsDto == null) {
+                newsDto = (NewsDto) pjp.proceed();
+                store(id, newsDto);
+            }
+            load.complete(newsDto);
+            return newsDto;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, load);
         }
     }
 
@@ -75,7 +151,7 @@ public class NewsProxyService {
     public Object doCreate(ProceedingJoinPoint pjp) throws Throwable {
         log.debug("Proxy news aop: post method");
         var newsDto = (NewsDto) pjp.proceed();
-        cache.put(newsDto.getId(), newsDto);
+        store(newsDto.getId(), newsDto);
         return newsDto;
     }
 
@@ -91,7 +167,7 @@ public class NewsProxyService {
     public Object doUpdate(ProceedingJoinPoint pjp) throws Throwable {
         log.debug("Proxy news aop: put method");
         var newsDto = (NewsDto) pjp.proceed();
-        cache.put(newsDto.getId(), newsDto);
+        store(newsDto.getId(), newsDto);
         return newsDto;
     }
 
@@ -109,6 +185,57 @@ public class NewsProxyService {
         var id = (Long) pjp.getArgs()[0];
         pjp.proceed();
         cache.remove(id);
+        if (refreshAhead != null) {
+            refreshAhead.forget(id);
+        }
+        evictions.increment();
         return id;
     }
+
+    /**
+     * Сохраняет новость в кэш и отмечает время ее сохранения.
+     *
+     * @param id      id новости
+     * @param newsDto объект NewsDto
+     */
+    private void store(Long id, NewsDto newsDto) {
+        cache.put(id, newsDto);
+        if (refreshAhead != null) {
+            refreshAhead.written(id);
+        }
+        puts.increment();
+    }
+
+    /**
+     * Возвращает повторный вызов оригинального метода для фонового обновления записи.
+     *
+     * @param pjp прокси-объект для вызова оригинального метода
+     * @return загрузка новости
+     */
+    private static Callable<Object> loader(ProceedingJoinPoint pjp) {
+        return () -> {
+            try {
+                return pjp.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ExecutionException(e);
+            }
+        };
+    }
+
+    /**
+     * Ожидает завершения загрузки, начатой другим потоком.
+     *
+     * @param load загрузка новости
+     * @return объект NewsDto
+     * @throws Throwable исключение, с которым завершилась загрузка
+     */
+    private NewsDto await(CompletableFuture<NewsDto> load) throws Throwable {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package ru.clevertec.news.specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
 import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.jpa.domain.Specification;
+import ru.clevertec.news.config.SearchFunctionContributor;
+import ru.clevertec.news.model.dto.NewsCursor;
 import ru.clevertec.news.model.dto.NewsFilterDto;
 import ru.clevertec.news.model.entity.News;
 
@@ -14,6 +20,7 @@ public class NewsSpecification {
 
     /**
      * Создает спецификацию для фильтрации новостей по заданным параметрам из {@link NewsFilterDto}.
+     * Если запрос не является подсчетом, результаты сортируются по time desc, id desc.
      *
      * @param filter объект, содержащий параметры фильтрации новостей
      * @return спецификация для поиска новостей
@@ -26,7 +33,139 @@ public class NewsSpecification {
         if (filter.text() != null && StringUtils.isNotEmpty(filter.text())) {
             spec = spec.and(findByText(filter.text()));
         }
-        return spec;
+        return spec.and(orderByTime());
+    }
+
+    /**
+     * Создает спецификацию полнотекстового поиска новостей по параметрам из {@link NewsFilterDto}.
+     * Фрагменты без букв и цифр не дают поискового запроса, для них сохраняется поиск через like.
+     * Если запрос не является подсчетом, результаты сортируются по релевантности, при равной релевантности -
+     * по time desc, id desc.
+     *
+     * @param filter объект, содержащий параметры фильтрации новостей
+     * @return спецификация для полнотекстового поиска новостей
+     */
+    public static Specification<News> search(NewsFilterDto filter) {
+        Specification<News> spec = Specification.where(null);
+        if (isSearchable(filter.title())) {
+            spec = spec.and(matches(News.Fields.title, filter.title()));
+        } else if (StringUtils.isNotEmpty(filter.title())) {
+            spec = spec.and(findByTitle(filter.title()));
+        }
+        if (isSearchable(filter.text())) {
+            spec = spec.and(matches(News.Fields.text, filter.text()));
+        } else if (StringUtils.isNotEmpty(filter.text())) {
+            spec = spec.and(findByText(filter.text()));
+        }
+        return spec.and(orderByRank(filter));
+    }
+
+    /**
+     * Создает спецификацию, отбирающую новости, которые идут в ленте после курсора
+     * при сортировке time desc, id desc: (time, id) &lt; (cursor.time, cursor.id).
+     * Избыточное условие time &lt;= cursor.time дает планировщику границу для range scan по индексу.
+     *
+     * @param cursor позиция последней выданной новости
+     * @return спецификация для поиска новостей после курсора
+     */
+    public static Specification<News> after(NewsCursor cursor) {
+        return (channel, criteriaQuery, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(channel.get(News.Fields.time), cursor.time()),
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(channel.get(News.Fields.time), cursor.time()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(channel.get(News.Fields.time), cursor.time()),
+                                criteriaBuilder.lessThan(channel.get(News.Fields.id), cursor.id())
+                        )
+                )
+        );
+    }
+
+    /**
+     * Проверяет, что из фрагмента получится непустой полнотекстовый запрос.
+     *
+     * @param fragment фрагмент для поиска
+     * @return true, если фрагмент содержит хотя бы одну букву или цифру
+     */
+    private static boolean isSearchable(String fragment) {
+        return StringUtils.isNotBlank(fragment) && fragment.codePoints().anyMatch(Character::isLetterOrDigit);
+    }
+
+    /**
+     * Создает спецификацию полнотекстового совпадения поля с фрагментом.
+     *
+     * @param field    имя поля новости
+     * @param fragment фрагмент для поиска
+     * @return спецификация для поиска новостей по полю
+     */
+    private static Specification<News> matches(String field, String fragment) {
+        return (channel, criteriaQuery, criteriaBuilder) -> criteriaBuilder.isTrue(
+                criteriaBuilder.function(SearchFunctionContributor.FTS_MATCH, Boolean.class,
+                        channel.get(field), criteriaBuilder.literal(fragment))
+        );
+    }
+
+    /**
+     * Создает спецификацию, которая не фильтрует новости, а сортирует их по релевантности,
+     * затем по time desc, id desc. Если ни один фрагмент не дает поискового запроса, сортирует только по времени.
+     * Для запроса подсчета сортировка не добавляется.
+     *
+     * @param filter объект, содержащий параметры фильтрации новостей
+     * @return спецификация сортировки по релевантности
+     */
+    private static Specification<News> orderByRank(NewsFilterDto filter) {
+        return (channel, criteriaQuery, criteriaBuilder) -> {
+            if (Long.class.equals(criteriaQuery.getResultType())) {
+                return null;
+            }
+            var titleRank = rank(channel, criteriaBuilder, News.Fields.title, filter.title());
+            var textRank = rank(channel, criteriaBuilder, News.Fields.text, filter.text());
+            var rank = titleRank != null && textRank != null
+                    ? criteriaBuilder.sum(titleRank, textRank)
+                    : ObjectUtils.firstNonNull(titleRank, textRank);
+            var time = criteriaBuilder.desc(channel.get(News.Fields.time));
+            var id = criteriaBuilder.desc(channel.get(News.Fields.id));
+            if (rank != null) {
+                criteriaQuery.orderBy(criteriaBuilder.desc(rank), time, id);
+            } else {
+                criteriaQuery.orderBy(time, id);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Создает спецификацию, которая не фильтрует новости, а сортирует их по time desc, id desc.
+     * id делает порядок однозначным для новостей с одинаковым временем, поэтому страницы offset-пагинации
+     * не пересекаются. Для запроса подсчета сортировка не добавляется.
+     *
+     * @return спецификация сортировки по времени
+     */
+    private static Specification<News> orderByTime() {
+        return (channel, criteriaQuery, criteriaBuilder) -> {
+            if (!Long.class.equals(criteriaQuery.getResultType())) {
+                criteriaQuery.orderBy(
+                        criteriaBuilder.desc(channel.get(News.Fields.time)),
+                        criteriaBuilder.desc(channel.get(News.Fields.id))
+                );
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Создает выражение релевантности поля фрагменту.
+     *
+     * @param channel         корень запроса
+     * @param criteriaBuilder построитель выражений
+     * @param field           имя поля новости
+     * @param fragment        фрагмент для поиска
+     * @return выражение ts_rank или null, если фрагмент не дает поискового запроса
+     */
+    private static Expression<Float> rank(Root<News> channel, CriteriaBuilder criteriaBuilder, String field, String fragment) {
+        return isSearchable(fragment)
+                ? criteriaBuilder.function(SearchFunctionContributor.FTS_RANK, Float.class, channel.get(field), criteriaBuilder.literal(fragment))
+                : null;
     }
 
     /**
@@ -0,0 +1,68 @@
+package ru.clevertec.news.util;
+
+import lombok.experimental.UtilityClass;
+import ru.clevertec.news.exception.InvalidCursorException;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.model.entity.News;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Утилитный класс для кодирования курсора keyset-пагинации в непрозрачную строку.
+ */
+@UtilityClass
+public class CursorUtils {
+
+    private static final int CURSOR_BYTES = Long.BYTES * 2 + Integer.BYTES;
+
+    /**
+     * Кодирует позицию новости в строку курсора.
+     *
+     * @param news последняя новость на странице
+     * @return строка курсора
+     */
+    public static String encode(News news) {
+        return encode(new NewsCursor(news.getTime(), news.getId()));
+    }
+
+    /**
+     * Кодирует позицию в ленте в строку курсора.
+     *
+     * @param cursor позиция последней новости на странице
+     * @return строка курсора
+     */
+    public static String encode(NewsCursor cursor) {
+        var epochSecond = cursor.time().toEpochSecond(ZoneOffset.UTC);
+        var buffer = ByteBuffer.allocate(CURSOR_BYTES)
+                .putLong(epochSecond)
+                .putInt(cursor.time().getNano())
+                .putLong(cursor.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Декодирует строку курсора.
+     *
+     * @param cursor строка курсора
+     * @return позиция в ленте
+     * @throws InvalidCursorException если курсор поврежден
+     */
+    public static NewsCursor decode(String cursor) {
+        try {
+            var bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != CURSOR_BYTES) {
+                throw new InvalidCursorException();
+            }
+            var buffer = ByteBuffer.wrap(bytes);
+            var time = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new NewsCursor(time, buffer.getLong());
+        } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
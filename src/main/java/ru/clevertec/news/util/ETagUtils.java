@@ -0,0 +1,107 @@
+package ru.clevertec.news.util;
+
+import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
+import ru.clevertec.news.dto.page.PageDto;
+import ru.clevertec.news.exception.VersionConflictException;
+import ru.clevertec.news.model.dto.NewsVersionDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Утилитный класс для вычисления ETag и Last-Modified по версиям новостей.
+ */
+@UtilityClass
+public class ETagUtils {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String ANY = "*";
+
+    /**
+     * Возвращает сильный ETag новости: он меняется с каждой версией новости.
+     *
+     * @param version версия новости
+     * @return ETag вида "id-version"
+     */
+    public static String strong(NewsVersionDto version) {
+        return "\"" + version.id() + "-" + version.version() + "\"";
+    }
+
+    /**
+     * Извлекает версию новости из заголовка If-Match со значением сильного ETag новости.
+     * If-Match сравнивает ETag только строго, поэтому слабый ETag не подходит,
+     * как и ETag другой новости.
+     *
+     * @param ifMatch значение заголовка If-Match
+     * @param id      id изменяемой новости
+     * @return версия новости или null, если заголовка нет или он равен *
+     * @throws VersionConflictException если значение не является сильным ETag новости с этим id
+     */
+    public static Long version(String ifMatch, Long id) {
+        if (StringUtils.isBlank(ifMatch) || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        var eTag = ifMatch.trim();
+        if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new VersionConflictException();
+        }
+        var value = eTag.substring(1, eTag.length() - 1);
+        var separator = value.indexOf('-');
+        try {
+            if (separator <= 0 || !Objects.equals(Long.parseLong(value.substring(0, separator)), id)) {
+                throw new VersionConflictException();
+            }
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException();
+        }
+    }
+
+    /**
+     * Возвращает слабый ETag страницы новостей по id и версиям новостей страницы и параметрам пагинации.
+     * Слабый, потому что одинаковые метаданные означают равнозначные, но не обязательно
+     * побайтно одинаковые ответы.
+     *
+     * @param page     параметры страницы
+     * @param versions версии новостей страницы
+     * @return ETag вида W/"хэш"
+     */
+    public static String weak(PageDto page, Collection<NewsVersionDto> versions) {
+        var hash = mix(FNV_OFFSET, page.pageNumber());
+        hash = mix(hash, page.pageSize());
+        hash = mix(hash, page.totalElements());
+        for (var version : versions) {
+            hash = mix(hash, version.id());
+            hash = mix(hash, version.version());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Возвращает время последнего изменения среди новостей в миллисекундах или -1, если оно неизвестно.
+     *
+     * @param versions версии новостей
+     * @return время последнего изменения
+     */
+    public static long lastModified(Collection<NewsVersionDto> versions) {
+        return versions.stream()
+                .map(NewsVersionDto::updated)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .map(updated -> updated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+
+    private static long mix(long hash, Number value) {
+        var bits = value == null ? 0 : value.longValue();
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (bits & 0xff)) * FNV_PRIME;
+            bits >>>= 8;
+        }
+        return hash;
+    }
+}
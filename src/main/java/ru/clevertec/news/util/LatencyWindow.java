@@ -0,0 +1,84 @@
+package ru.clevertec.news.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Времена последних вызовов в кольцевом буфере фиксированного размера для оценки их процентилей.
+ * Процентиль пересчитывается (копированием и сортировкой буфера) не чаще раза в refreshInterval,
+ * в промежутке возвращается последнее посчитанное значение.
+ */
+public class LatencyWindow {
+
+    private final long[] values;
+    private final int minSamples;
+    private final long refreshNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private int next;
+    private int count;
+
+    /**
+     * @param size            количество последних вызовов, по которым считаются процентили
+     * @param minSamples      минимальное количество вызовов, начиная с которого процентиль считается
+     * @param refreshInterval как часто пересчитывать процентиль
+     */
+    public LatencyWindow(int size, int minSamples, Duration refreshInterval) {
+        this.values = new long[size];
+        this.minSamples = Math.min(minSamples, size);
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Записывает время вызова.
+     *
+     * @param nanos время вызова в наносекундах
+     */
+    public synchronized void record(long nanos) {
+        values[next] = nanos;
+        next = (next + 1) % values.length;
+        count = Math.min(count + 1, values.length);
+    }
+
+    /**
+     * Возвращает процентиль времени последних вызовов, посчитанный не раньше refreshInterval назад.
+     * Пока процентиль пересчитывает один поток, остальные получают прежнее значение.
+     *
+     * @param percentile процентиль от 0 до 1
+     * @return процентиль или null, если вызовов меньше minSamples
+     */
+    public Duration percentile(double percentile) {
+        var current = snapshot;
+        var cached = current != null && current.percentile() == percentile;
+        if (cached && System.nanoTime() - current.computedAt() < refreshNanos) {
+            return current.value();
+        }
+        if (!refreshLock.tryLock()) {
+            return cached ? current.value() : compute(percentile);
+        }
+        try {
+            var value = compute(percentile);
+            snapshot = new Snapshot(percentile, value, System.nanoTime());
+            return value;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Duration compute(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < minSamples || count == 0) {
+                return null;
+            }
+            sorted = Arrays.copyOf(values, count);
+        }
+        Arrays.sort(sorted);
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+
+    private record Snapshot(double percentile, Duration value, long computedAt) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.clevertec.news.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Утилитный класс для действий, привязанных к завершению транзакции.
+ */
+@UtilityClass
+public class TransactionUtils {
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции, а если транзакции нет - сразу.
+     * При откате транзакции действие не выполняется.
+     *
+     * @param action действие
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
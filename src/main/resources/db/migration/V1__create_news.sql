@@ -0,0 +1,23 @@
+create sequence if not exists news_seq start with 1 increment by 50;
+
+create table if not exists news
+(
+    id      bigint       default nextval('news_seq') not null primary key,
+    time    timestamp(6),
+    title   varchar(255),
+    text    varchar(255),
+    user_id bigint,
+    version bigint       default 0                   not null,
+    updated timestamp(6)
+);
+
+create sequence if not exists news_outbox_seq start with 1 increment by 50;
+
+create table if not exists news_outbox
+(
+    id       bigint not null primary key,
+    news_id  bigint,
+    type     varchar(255) check (type in ('CREATED', 'UPDATED', 'DELETED')),
+    time     timestamp(6),
+    sequence bigint unique
+);
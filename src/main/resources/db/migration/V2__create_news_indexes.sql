@@ -0,0 +1,17 @@
+-- Лента и постраничный вывод: order by time desc, id desc, в том числе после курсора.
+create index if not exists news_time_id_idx on news (time desc, id desc);
+
+-- Новости автора в порядке ленты.
+create index if not exists news_user_id_time_id_idx on news (user_id, time desc, id desc);
+
+-- Полнотекстовый поиск: выражения совпадают с функциями SearchFunctionContributor.
+create index if not exists news_title_fts_idx on news using gin (to_tsvector('simple', coalesce(title, '')));
+create index if not exists news_text_fts_idx on news using gin (to_tsvector('simple', coalesce(text, '')));
+
+-- Поиск по подстроке (like '%...%'): режим LIKE и fallback полнотекстового поиска.
+create extension if not exists pg_trgm;
+create index if not exists news_title_trgm_idx on news using gin (title gin_trgm_ops);
+create index if not exists news_text_trgm_idx on news using gin (text gin_trgm_ops);
+
+-- Неопубликованные записи outbox, которые выбирает ретранслятор.
+create index if not exists news_outbox_unpublished_idx on news_outbox (id) where sequence is null;
@@ -0,0 +1,5 @@
+create table if not exists news_popularity
+(
+    news_id bigint  not null primary key,
+    score   integer not null
+);
@@ -0,0 +1,71 @@
+package ru.clevertec.news.cache.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalNewsBatchCacheTest {
+
+    @Mock
+    private Cache<Long, NewsDto> cache;
+
+    private final Map<Long, NewsDto> storage = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(cache.get(any())).thenAnswer(invocation -> storage.get(invocation.<Long>getArgument(0)));
+        lenient().doAnswer(invocation -> storage.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(cache).put(any(), any());
+        lenient().doAnswer(invocation -> storage.remove(invocation.<Long>getArgument(0))).when(cache).remove(any());
+    }
+
+    @Test
+    void getAllShouldReturnNewsPutByPutAll() {
+        var refreshAhead = refreshAhead(Duration.ofMinutes(1));
+        var localNewsBatchCache = new LocalNewsBatchCache(cache, refreshAhead);
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+
+        localNewsBatchCache.putAll(Map.of(newsDto.getId(), newsDto));
+        var actual = localNewsBatchCache.getAll(List.of(newsDto.getId()));
+
+        assertEquals(Map.of(newsDto.getId(), newsDto), actual);
+        assertFalse(refreshAhead.isExpired(newsDto.getId()));
+    }
+
+    @Test
+    void getAllShouldRemoveExpiredNews() throws InterruptedException {
+        var localNewsBatchCache = new LocalNewsBatchCache(cache, refreshAhead(Duration.ofMillis(10)));
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+        localNewsBatchCache.putAll(Map.of(newsDto.getId(), newsDto));
+        Thread.sleep(20);
+
+        var actual = localNewsBatchCache.getAll(List.of(newsDto.getId()));
+
+        assertTrue(actual.isEmpty());
+        verify(cache).remove(newsDto.getId());
+        assertTrue(storage.isEmpty());
+    }
+
+    private static RefreshAhead refreshAhead(Duration ttl) {
+        return new RefreshAhead(new CacheTtlPolicy(ttl, 0, 0.2), 10, Runnable::run);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.clevertec.news.cache.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ru.clevertec.news.util.CommentTestBuilder;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(1024);
+
+    @Test
+    void serializeShouldRoundTripNewsWithoutComments() {
+        var expected = NewsTestBuilder.builder().withCommentDtoList(null).build().buildNewsDto();
+
+        var actual = serializer.deserialize(serializer.serialize(expected));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void serializeShouldBeSmallerThanJdkSerialization() {
+        var newsDto = NewsTestBuilder.builder().withCommentDtoList(null).build().buildNewsDto();
+
+        var compact = serializer.serialize(newsDto);
+        var jdk = RedisSerializer.java().serialize(newsDto);
+
+        assertTrue(compact.length * 5 < jdk.length);
+    }
+
+    @Test
+    void serializeShouldCompressLongText() {
+        var expected = NewsTestBuilder.builder().withCommentDtoList(null).withText("news ".repeat(2000)).build().buildNewsDto();
+
+        var bytes = serializer.serialize(expected);
+        var actual = serializer.deserialize(bytes);
+
+        assertTrue(bytes.length < expected.getText().length() / 10);
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void serializeShouldFallbackToJdkForNewsWithComments() {
+        var expected = NewsTestBuilder.builder()
+                .withCommentDtoList(List.of(CommentTestBuilder.builder().build().buildCommentDto()))
+                .build().buildNewsDto();
+
+        var actual = serializer.deserialize(serializer.serialize(expected));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void deserializeShouldReadValuesWrittenWithJdkSerialization() {
+        var expected = NewsTestBuilder.builder().build().buildNewsDto();
+
+        var actual = serializer.deserialize(RedisSerializer.java().serialize(expected));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void serializeShouldKeepNonNewsValuesReadable() {
+        assertEquals("value", serializer.deserialize(serializer.serialize("value")));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.clevertec.news.cache.comment;
+
+import org.junit.jupiter.api.Test;
+import ru.clevertec.news.dto.CommentDto;
+import ru.clevertec.news.util.CommentTestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+
+public class CommentPageCacheTest {
+
+    private static final Long NEWS_ID = 1L;
+
+    private final List<CommentDto> comments = List.of(CommentTestBuilder.builder().build().buildCommentDto());
+
+    @Test
+    void getShouldReturnFreshPageWithoutRefresh() {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments);
+
+        var actual = cache.get(NEWS_ID, OFFSET, LIMIT, counting(loads, List.of()));
+
+        assertEquals(comments, actual);
+        assertEquals(0, loads.get());
+        assertEquals(new CommentPageCacheStats(1, 0, 0, 0, 1), cache.stats());
+    }
+
+    @Test
+    void getShouldServeStalePageAndRefreshInBackground() throws InterruptedException {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMillis(10), Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+        var refreshed = List.of(CommentTestBuilder.builder().withId(2L).build().buildCommentDto());
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments);
+        Thread.sleep(20);
+
+        var stale = cache.get(NEWS_ID, OFFSET, LIMIT, counting(loads, refreshed));
+        var fresh = cache.get(NEWS_ID, OFFSET, LIMIT, counting(loads, List.of()));
+
+        assertEquals(comments, stale);
+        assertEquals(refreshed, fresh);
+        assertEquals(1, loads.get());
+        assertEquals(new CommentPageCacheStats(1, 1, 0, 1, 1), cache.stats());
+    }
+
+    @Test
+    void getShouldMissForUnknownPage() {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        assertNull(cache.get(NEWS_ID, OFFSET, LIMIT, List::of));
+        assertEquals(0.0, cache.stats().hitRatio());
+    }
+
+    @Test
+    void evictShouldRemoveAllPagesOfNews() {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments);
+        cache.put(NEWS_ID, OFFSET + 1, LIMIT, comments);
+        cache.put(NEWS_ID + 10, OFFSET, LIMIT, comments);
+
+        cache.evict(NEWS_ID);
+
+        assertNull(cache.get(NEWS_ID, OFFSET, LIMIT, List::of));
+        assertNull(cache.get(NEWS_ID, OFFSET + 1, LIMIT, List::of));
+        assertEquals(comments, cache.get(NEWS_ID + 10, OFFSET, LIMIT, List::of));
+    }
+
+    @Test
+    void putShouldDropPageLoadedBeforeEvict() {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var stamp = cache.stamp();
+
+        cache.evict(NEWS_ID);
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments, stamp);
+
+        assertNull(cache.get(CommentPageCache.key(NEWS_ID, OFFSET, LIMIT)));
+    }
+
+    @Test
+    void getShouldDropRefreshedPageWhenNewsIsEvictedDuringRefresh() throws InterruptedException {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMillis(10), Duration.ofMinutes(1));
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments);
+        Thread.sleep(20);
+
+        cache.get(NEWS_ID, OFFSET, LIMIT, () -> {
+            cache.evict(NEWS_ID);
+            return comments;
+        });
+
+        assertNull(cache.getLast(NEWS_ID, OFFSET, LIMIT));
+    }
+
+    @Test
+    void getLastShouldReturnExpiredPageUntilFallbackTtl() throws InterruptedException {
+        var cache = new CommentPageCache(Runnable::run, 10, Duration.ofMillis(5), Duration.ofMillis(5), Duration.ofMinutes(1));
+        var loads = new AtomicInteger();
+        cache.put(NEWS_ID, OFFSET, LIMIT, comments);
+        Thread.sleep(20);
+
+        assertNull(cache.get(NEWS_ID, OFFSET, LIMIT, counting(loads, List.of())));
+        assertEquals(comments, cache.getLast(NEWS_ID, OFFSET, LIMIT));
+        assertNull(cache.getLast(NEWS_ID + 10, OFFSET, LIMIT));
+        assertEquals(0, loads.get());
+        assertEquals(new CommentPageCacheStats(0, 0, 1, 0, 1), cache.stats());
+    }
+
+    private Supplier<List<CommentDto>> counting(AtomicInteger loads, List<CommentDto> result) {
+        return () -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+}
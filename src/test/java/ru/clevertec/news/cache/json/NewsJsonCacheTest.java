@@ -0,0 +1,72 @@
+package ru.clevertec.news.cache.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NewsJsonCacheTest {
+
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final NewsJsonCache newsJsonCache = new NewsJsonCache(objectMapper, true, 100, Duration.ofMinutes(1), GZIP_MIN_SIZE);
+
+    @Test
+    void getShouldSerializeOncePerVersion() {
+        var builder = NewsTestBuilder.builder().build();
+        var loads = new AtomicInteger();
+
+        var first = newsJsonCache.get(builder.buildNewsVersionDto(), () -> {
+            loads.incrementAndGet();
+            return builder.buildNewsDto();
+        });
+        var second = newsJsonCache.get(builder.buildNewsVersionDto(), () -> {
+            loads.incrementAndGet();
+            return builder.buildNewsDto();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getShouldSerializeAgainForNewVersion() throws IOException {
+        var oldVersion = NewsTestBuilder.builder().build();
+        var newVersion = NewsTestBuilder.builder().withVersion(1L).withTitle("updated").build();
+        newsJsonCache.get(oldVersion.buildNewsVersionDto(), oldVersion::buildNewsDto);
+
+        var actual = newsJsonCache.get(newVersion.buildNewsVersionDto(), newVersion::buildNewsDto);
+
+        assertEquals("updated", objectMapper.readValue(actual.json(), NewsDto.class).getTitle());
+    }
+
+    @Test
+    void getShouldGzipOnlyLargeNews() throws IOException {
+        var small = NewsTestBuilder.builder().build();
+        var large = NewsTestBuilder.builder().withId(2L).withText("news ".repeat(1000)).build();
+
+        var smallJson = newsJsonCache.get(small.buildNewsVersionDto(), small::buildNewsDto);
+        var largeJson = newsJsonCache.get(large.buildNewsVersionDto(), large::buildNewsDto);
+
+        assertNull(smallJson.gzip());
+        assertThat(largeJson.gzip().length).isLessThan(largeJson.json().length / 10);
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(largeJson.gzip()))) {
+            assertArrayEquals(largeJson.json(), in.readAllBytes());
+        }
+    }
+}
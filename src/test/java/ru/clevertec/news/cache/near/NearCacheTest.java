@@ -0,0 +1,273 @@
+package ru.clevertec.news.cache.near;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class NearCacheTest {
+
+    private static final String CACHE_NAME = "news";
+    private static final int READERS = 16;
+
+    @Mock
+    private NearCacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCache redisStandIn;
+
+    private NearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        redisStandIn = new ConcurrentMapCache(CACHE_NAME);
+        nearCache = new NearCache(redisStandIn, new LocalCache<>(2, Duration.ofMinutes(1)), publisher);
+    }
+
+    @Test
+    void getShouldServeRepeatedReadsFromLocalTier() {
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+        redisStandIn.put(newsDto.getId(), newsDto);
+
+        nearCache.get(newsDto.getId());
+        redisStandIn.evict(newsDto.getId());
+        var actual = nearCache.get(newsDto.getId());
+
+        assertEquals(newsDto, actual.get());
+        assertEquals(new NearCacheStats(1, 1, 0, 0, 1), nearCache.stats());
+        assertEquals(0.5, nearCache.stats().l1HitRatio());
+        assertEquals(1.0, nearCache.stats().l2HitRatio());
+    }
+
+    @Test
+    void getShouldCountMissWhenBothTiersAreEmpty() {
+        var actual = nearCache.get(1L);
+
+        assertNull(actual);
+        assertEquals(new NearCacheStats(0, 0, 1, 0, 0), nearCache.stats());
+    }
+
+    @Test
+    void getWithLoaderShouldLoadOnceAndKeepValueInBothTiers() {
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+
+        nearCache.get(newsDto.getId(), () -> newsDto);
+        var actual = nearCache.get(newsDto.getId(), () -> null);
+
+        assertEquals(newsDto, actual);
+        assertEquals(newsDto, redisStandIn.get(newsDto.getId()).get());
+        assertEquals(new NearCacheStats(1, 0, 1, 0, 1), nearCache.stats());
+    }
+
+    @Test
+    void getWithLoaderShouldRefreshBothTiersWhenReadNearExpiry() throws InterruptedException {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run);
+        nearCache = new NearCache(redisStandIn, new LocalCache<>(2, Duration.ofMinutes(1)), publisher, refreshAhead);
+        nearCache.get(1L, () -> "one");
+        Thread.sleep(20);
+
+        var stale = nearCache.get(1L, () -> "refreshed");
+        var actual = nearCache.get(1L, () -> null);
+
+        assertEquals("one", stale);
+        assertEquals("refreshed", actual);
+        assertEquals("refreshed", redisStandIn.get(1L).get());
+        assertEquals(1, nearCache.refreshes());
+    }
+
+    @Test
+    void getWithLoaderShouldRefreshEntryRewrittenByAnotherInstanceByItsRemainingTtl() {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run,
+                key -> Duration.ofMillis(5));
+        nearCache = new NearCache(redisStandIn, new LocalCache<>(2, Duration.ofMinutes(1)), publisher, refreshAhead);
+        nearCache.get(1L, () -> "one");
+        redisStandIn.put(1L, "other instance");
+
+        nearCache.invalidateLocal("1");
+        var read = nearCache.get(1L, () -> "refreshed");
+
+        assertEquals("other instance", read);
+        assertEquals("refreshed", redisStandIn.get(1L).get());
+        assertEquals(1, nearCache.refreshes());
+    }
+
+    @Test
+    void getShouldLoadMissOnceForConcurrentReadersOfOneKey() throws Exception {
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        nearCache = nearCacheWithLoader(key -> {
+            loads.incrementAndGet();
+            await(release);
+            return "loaded " + key;
+        });
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var reads = new ArrayList<Future<Cache.ValueWrapper>>();
+            for (int i = 0; i < READERS; i++) {
+                reads.add(executor.submit(() -> nearCache.get(1L)));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (var read : reads) {
+                assertEquals("loaded 1", read.get().get());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("loaded 1", redisStandIn.get(1L).get());
+    }
+
+    @Test
+    void getShouldLoadMissesOfDifferentKeysInParallel() throws Exception {
+        var started = new CountDownLatch(2);
+        nearCache = nearCacheWithLoader(key -> {
+            started.countDown();
+            await(started);
+            return "loaded " + key;
+        });
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = executor.submit(() -> nearCache.get(1L));
+            var second = executor.submit(() -> nearCache.get(2L));
+
+            assertEquals("loaded 1", first.get(1, TimeUnit.SECONDS).get());
+            assertEquals("loaded 2", second.get(1, TimeUnit.SECONDS).get());
+        }
+    }
+
+    @Test
+    void getShouldRethrowLoaderExceptionAndAllowNextLoad() {
+        var loads = new AtomicInteger();
+        nearCache = nearCacheWithLoader(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("not found");
+            }
+            return "loaded";
+        });
+
+        assertThrows(IllegalStateException.class, () -> nearCache.get(1L));
+        assertEquals("loaded", nearCache.get(1L).get());
+    }
+
+    @Test
+    void putShouldReplaceValueInBothTiersAndPublishInvalidation() {
+        nearCache.get(1L, () -> "one");
+
+        nearCache.put(1L, "updated");
+
+        assertEquals("updated", nearCache.get(1L).get());
+        assertEquals("updated", redisStandIn.get(1L).get());
+        verify(publisher).publish(CACHE_NAME, "1");
+    }
+
+    @Test
+    void evictShouldRemoveFromBothTiersAndPublishInvalidation() {
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+        nearCache.get(newsDto.getId(), () -> newsDto);
+
+        nearCache.evict(newsDto.getId());
+
+        assertNull(nearCache.get(newsDto.getId()));
+        assertEquals(1, nearCache.stats().evictions());
+        verify(publisher).publish(CACHE_NAME, String.valueOf(newsDto.getId()));
+    }
+
+    @Test
+    void invalidateLocalShouldDropOnlyLocalTier() {
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+        nearCache.put(newsDto.getId(), newsDto);
+
+        nearCache.invalidateLocal(String.valueOf(newsDto.getId()));
+        nearCache.get(newsDto.getId());
+
+        assertEquals(new NearCacheStats(0, 1, 0, 0, 1), nearCache.stats());
+    }
+
+    @Test
+    void putShouldEvictLeastRecentlyUsedLocalEntryWhenFull() {
+        nearCache.put(1L, "one");
+        nearCache.put(2L, "two");
+        nearCache.get(1L);
+        nearCache.put(3L, "three");
+        redisStandIn.clear();
+
+        assertEquals("one", nearCache.get(1L).get());
+        assertNull(nearCache.get(2L));
+        assertEquals("three", nearCache.get(3L).get());
+    }
+
+    @Test
+    void getAllShouldReadOnlyLocalMissesFromSecondTierInOneCall() {
+        nearCache.put(1L, "one");
+        redisStandIn.put(2L, "two");
+        var l2Calls = new ArrayList<List<Object>>();
+
+        var actual = nearCache.getAll(List.of(1L, 2L, 3L), keys -> {
+            l2Calls.add(keys);
+            var found = new HashMap<Object, Object>();
+            keys.forEach(key -> {
+                var wrapper = redisStandIn.get(key);
+                if (wrapper != null) {
+                    found.put(key, wrapper.get());
+                }
+            });
+            return found;
+        });
+
+        assertEquals(Map.of(1L, "one", 2L, "two"), actual);
+        assertEquals(List.of(List.of(2L, 3L)), l2Calls);
+        assertEquals(new NearCacheStats(1, 1, 1, 0, 2), nearCache.stats());
+    }
+
+    @Test
+    void putAllShouldWriteSecondTierInOneCallAndFillLocalTier() {
+        var l2Calls = new ArrayList<Map<?, ?>>();
+
+        nearCache.putAll(Map.of(1L, "one", 2L, "two"), l2Calls::add);
+        var actual = nearCache.getAll(List.of(1L, 2L), keys -> Map.of());
+
+        assertEquals(Map.of(1L, "one", 2L, "two"), actual);
+        assertEquals(1, l2Calls.size());
+        assertEquals(new NearCacheStats(2, 0, 0, 0, 2), nearCache.stats());
+        verify(publisher).publish(CACHE_NAME, "1");
+        verify(publisher).publish(CACHE_NAME, "2");
+    }
+
+    private NearCache nearCacheWithLoader(Function<Object, ?> loader) {
+        return new NearCache(redisStandIn, new LocalCache<>(2, Duration.ofMinutes(1)), publisher, null, loader);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
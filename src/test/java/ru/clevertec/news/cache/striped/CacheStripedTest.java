@@ -0,0 +1,126 @@
+package ru.clevertec.news.cache.striped;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheStripedTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 20_000;
+
+    @Test
+    void getShouldReturnPutValue() {
+        var cache = new CacheStriped<String>();
+
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(1L, "uno");
+
+        assertEquals("uno", cache.get(1L));
+        assertEquals("two", cache.get(2L));
+        assertNull(cache.get(3L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void removeShouldKeepOtherKeysReachable() {
+        var cache = new CacheStriped<Long>();
+        cache.capacity(1000);
+        for (long key = 0; key < 500; key++) {
+            cache.put(key, key);
+        }
+
+        for (long key = 0; key < 500; key += 2) {
+            cache.remove(key);
+        }
+
+        for (long key = 0; key < 500; key++) {
+            assertEquals(key % 2 == 0 ? null : key, cache.get(key));
+        }
+        assertEquals(250, cache.size());
+    }
+
+    @Test
+    void putShouldNotExceedCapacity() {
+        var cache = new CacheStriped<Long>();
+        cache.capacity(100);
+
+        for (long key = 0; key < 10_000; key++) {
+            cache.put(key, key);
+        }
+
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void putShouldKeepFrequentlyReadKeysWhenScanned() {
+        var cache = new CacheStriped<Long>();
+        cache.capacity(100);
+        for (long key = 0; key < 50; key++) {
+            cache.put(key, key);
+            for (int i = 0; i < 10; i++) {
+                cache.get(key);
+            }
+        }
+
+        for (long key = 1000; key < 1500; key++) {
+            cache.put(key, key);
+        }
+
+        var retained = 0;
+        for (long key = 0; key < 50; key++) {
+            if (cache.get(key) != null) {
+                retained++;
+            }
+        }
+        assertEquals(50, retained);
+    }
+
+    @Test
+    void getShouldSeeOnlyPutValuesUnderConcurrentWrites() throws Exception {
+        var cache = new CacheStriped<Long>();
+        cache.capacity(256);
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var results = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    var mismatches = 0;
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        long key = random.nextLong(1024);
+                        if (random.nextInt(4) == 0) {
+                            cache.put(key, key * 10);
+                        } else if (random.nextInt(16) == 0) {
+                            cache.remove(key);
+                        } else {
+                            var value = cache.get(key);
+                            if (value != null && value != key * 10) {
+                                mismatches++;
+                            }
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                assertEquals(0, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(cache.size() <= 256);
+    }
+}
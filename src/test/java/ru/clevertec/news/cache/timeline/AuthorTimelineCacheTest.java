@@ -0,0 +1,84 @@
+package ru.clevertec.news.cache.timeline;
+
+import org.junit.jupiter.api.Test;
+import ru.clevertec.news.model.dto.NewsCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AuthorTimelineCacheTest {
+
+    private static final long USER_ID = 1L;
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 3, 9, 0);
+
+    private final AuthorTimelineCache cache = new AuthorTimelineCache(2, 3, Duration.ofMinutes(1));
+
+    @Test
+    void addShouldInsertNewsInTimelineOrderAndDropOldestWhenFull() {
+        cache.put(USER_ID, new AuthorTimeline(List.of(entry(3), entry(1)), true), cache.stamp());
+
+        cache.add(USER_ID, entry(4));
+        cache.add(USER_ID, entry(2));
+
+        var actual = cache.get(USER_ID);
+        assertEquals(List.of(entry(4), entry(3), entry(2)), actual.entries());
+        assertFalse(actual.complete());
+    }
+
+    @Test
+    void addShouldSkipNewsOlderThanCachedPrefixOfIncompleteTimeline() {
+        cache.put(USER_ID, new AuthorTimeline(List.of(entry(5), entry(4)), false), cache.stamp());
+
+        cache.add(USER_ID, entry(1));
+
+        assertEquals(List.of(entry(5), entry(4)), cache.get(USER_ID).entries());
+    }
+
+    @Test
+    void removeShouldDropNewsFromTimelineOfItsAuthor() {
+        cache.put(USER_ID, new AuthorTimeline(List.of(entry(3), entry(2), entry(1)), true), cache.stamp());
+
+        cache.remove(2L);
+
+        assertEquals(List.of(entry(3), entry(1)), cache.get(USER_ID).entries());
+    }
+
+    @Test
+    void putShouldBeIgnoredWhenTimelinesChangedDuringLoad() {
+        var stamp = cache.stamp();
+        cache.add(USER_ID, entry(2));
+
+        cache.put(USER_ID, new AuthorTimeline(List.of(entry(1)), true), stamp);
+
+        assertNull(cache.get(USER_ID));
+    }
+
+    @Test
+    void putShouldEvictLeastRecentlyUsedTimelineWhenFull() {
+        cache.put(1L, new AuthorTimeline(List.of(entry(1)), true), cache.stamp());
+        cache.put(2L, new AuthorTimeline(List.of(entry(2)), true), cache.stamp());
+        cache.get(1L);
+        cache.put(3L, new AuthorTimeline(List.of(entry(3)), true), cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void afterShouldReturnEntriesFollowingCursor() {
+        var timeline = new AuthorTimeline(List.of(entry(4), entry(3), entry(2), entry(1)), true);
+
+        assertEquals(List.of(entry(4), entry(3)), timeline.after(null, 2));
+        assertEquals(List.of(entry(2), entry(1)), timeline.after(entry(3), 5));
+        assertEquals(List.of(), timeline.after(entry(1), 5));
+    }
+
+    private static NewsCursor entry(long id) {
+        return new NewsCursor(TIME.plusMinutes(id), id);
+    }
+}
@@ -0,0 +1,142 @@
+package ru.clevertec.news.cache.ttl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RefreshAheadTest {
+
+    private static final Long KEY = 1L;
+
+    private final Map<Object, Object> storage = new HashMap<>();
+
+    private final BiConsumer<Object, Object> writer = storage::put;
+
+    @Test
+    void ttlShouldSpreadKeysWithinJitterAndStayStablePerKey() {
+        var policy = new CacheTtlPolicy(Duration.ofMinutes(10), 0.1, 0.2);
+
+        var ttls = LongStream.range(0, 1000).mapToObj(policy::ttl).toList();
+
+        ttls.forEach(ttl -> assertTrue(ttl.compareTo(Duration.ofMinutes(9)) >= 0 && ttl.compareTo(policy.maxTtl()) <= 0));
+        assertTrue(ttls.stream().distinct().count() > 900);
+        assertEquals(policy.ttl(KEY), policy.ttl(KEY));
+        assertEquals(policy.ttl(KEY).multipliedBy(8).dividedBy(10).toMillis(), policy.refreshAfter(KEY).toMillis());
+    }
+
+    @Test
+    void ttlShouldBeZeroWhenDisabled() {
+        var policy = new CacheTtlPolicy(Duration.ZERO, 0.1, 0.2);
+
+        assertFalse(policy.isEnabled());
+        assertEquals(Duration.ZERO, policy.ttl(KEY));
+    }
+
+    @Test
+    void refreshIfDueShouldNotReloadFreshEntry() {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMinutes(1), 0, 0.2), 10, Runnable::run);
+        var loads = new AtomicInteger();
+        refreshAhead.written(KEY);
+
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), writer);
+
+        assertEquals(0, loads.get());
+        assertEquals(0, refreshAhead.refreshes());
+    }
+
+    @Test
+    void refreshIfDueShouldReloadEntryReadInItsLastPartOfLifetime() throws InterruptedException {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run);
+        var loads = new AtomicInteger();
+        refreshAhead.written(KEY);
+        Thread.sleep(20);
+
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), (key, value) -> {
+            storage.put(key, value);
+            refreshAhead.written(key);
+        });
+        refreshAhead.refreshIfDue(KEY, counting(loads, "again"), writer);
+
+        assertEquals(1, loads.get());
+        assertEquals("refreshed", storage.get(KEY));
+        assertEquals(1, refreshAhead.refreshes());
+        assertFalse(refreshAhead.isExpired(KEY));
+    }
+
+    @Test
+    void refreshIfDueShouldDropLoadedValueWhenEntryChangedDuringLoad() throws InterruptedException {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run);
+        refreshAhead.written(KEY);
+        Thread.sleep(20);
+
+        refreshAhead.refreshIfDue(KEY, () -> {
+            refreshAhead.forget(KEY);
+            return "stale";
+        }, writer);
+
+        assertTrue(storage.isEmpty());
+        assertEquals(0, refreshAhead.refreshes());
+    }
+
+    @Test
+    void refreshIfDueShouldOnlyRememberUnknownEntry() throws InterruptedException {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run);
+        var loads = new AtomicInteger();
+
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), writer);
+        Thread.sleep(20);
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), writer);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void refreshIfDueShouldReloadUnknownEntryWrittenLongAgoByAnotherInstance() {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run,
+                key -> Duration.ofMillis(5));
+        var loads = new AtomicInteger();
+
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), writer);
+
+        assertEquals(1, loads.get());
+        assertEquals("refreshed", storage.get(KEY));
+    }
+
+    @Test
+    void refreshIfDueShouldNotReloadUnknownEntryJustWrittenByAnotherInstance() {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run,
+                key -> Duration.ofMillis(100));
+        var loads = new AtomicInteger();
+
+        refreshAhead.refreshIfDue(KEY, counting(loads, "refreshed"), writer);
+
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void isExpiredShouldBeTrueAfterTtl() throws InterruptedException {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(10), 0, 0.2), 10, Runnable::run);
+        refreshAhead.written(KEY);
+        Thread.sleep(20);
+
+        assertTrue(refreshAhead.isExpired(KEY));
+        assertFalse(refreshAhead.isExpired(2L));
+    }
+
+    private static Callable<Object> counting(AtomicInteger loads, Object value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+}
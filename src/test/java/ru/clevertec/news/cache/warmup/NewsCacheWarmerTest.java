@@ -0,0 +1,146 @@
+package ru.clevertec.news.cache.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.dto.create.NewsCreateDto;
+import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.NewsService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+
+@RecordApplicationEvents
+@SpringBootTest(properties = "cache.warmup.top-n=" + NewsCacheWarmerTest.TOP_N)
+public class NewsCacheWarmerTest extends PostgresSqlContainerInitializer {
+
+    static final int TOP_N = 100;
+    private static final int NEWS_COUNT = 1000;
+    private static final double HOT_SHARE = 0.95;
+    private static final int TRAINING_READS = 5000;
+    private static final int READS_AFTER_RESTART = 1000;
+    private static final double TARGET_HIT_RATIO = 0.9;
+    private static final long HOT_ID = 1_000_001L;
+    private static final long OTHER_INSTANCE_ID = 1_000_002L;
+    private static final int STORED_SCORE = 1_000_000;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsCacheWarmer newsCacheWarmer;
+
+    @Autowired
+    private NewsAccessRecorder newsAccessRecorder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private NewsRepository newsRepository;
+
+    @Test
+    void startupShouldAcceptTrafficAfterWarmup() {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+    }
+
+    @Test
+    void startupWarmupShouldRefuseTrafficAndReachTargetHitRatioAfterCacheIsFlushed() {
+        var ids = newsService.createAll(IntStream.range(0, NEWS_COUNT)
+                        .mapToObj(i -> new NewsCreateDto("title " + i, "text " + i, (long) i))
+                        .toList())
+                .stream()
+                .map(NewsDto::getId)
+                .toList();
+        read(ids, TRAINING_READS, new Random(1));
+        newsCacheWarmer.persist();
+        cacheManager.getCache("news").clear();
+
+        applicationContext.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0],
+                applicationContext, Duration.ZERO));
+        clearInvocations(newsRepository);
+        read(ids, READS_AFTER_RESTART, new Random(2));
+
+        var hitRatio = 1.0 - dbReads() / (double) READS_AFTER_RESTART;
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), readinessStates());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+        assertTrue(hitRatio >= TARGET_HIT_RATIO, "hit ratio " + hitRatio);
+    }
+
+    @Test
+    void persistShouldAddScoresToScoresStoredByOtherInstances() {
+        jdbcTemplate.update("insert into news_popularity (news_id, score) values (?, ?), (?, ?)",
+                HOT_ID, STORED_SCORE, OTHER_INSTANCE_ID, STORED_SCORE);
+        for (int i = 0; i < TRAINING_READS; i++) {
+            newsAccessRecorder.record(HOT_ID);
+        }
+        var hotScore = newsAccessRecorder.top().get(HOT_ID);
+
+        newsCacheWarmer.persist();
+
+        assertEquals(STORED_SCORE / 2 + hotScore, score(HOT_ID));
+        assertEquals(STORED_SCORE / 2, score(OTHER_INSTANCE_ID));
+    }
+
+    /**
+     * Читает новости так, что HOT_SHARE чтений приходится на первые TOP_N новостей.
+     */
+    private void read(List<Long> ids, int reads, Random random) {
+        for (int i = 0; i < reads; i++) {
+            var index = random.nextDouble() < HOT_SHARE
+                    ? random.nextInt(TOP_N)
+                    : TOP_N + random.nextInt(ids.size() - TOP_N);
+            newsService.findNewsById(ids.get(index));
+        }
+    }
+
+    private int score(long newsId) {
+        return jdbcTemplate.queryForObject("select score from news_popularity where news_id = ?", Integer.class, newsId);
+    }
+
+    private List<ReadinessState> readinessStates() {
+        return applicationEvents.stream(AvailabilityChangeEvent.class)
+                .map(AvailabilityChangeEvent::getState)
+                .filter(ReadinessState.class::isInstance)
+                .map(ReadinessState.class::cast)
+                .toList();
+    }
+
+    private long dbReads() {
+        return mockingDetails(newsRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findById"))
+                .count();
+    }
+}
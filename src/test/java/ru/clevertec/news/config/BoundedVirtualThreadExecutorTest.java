@@ -0,0 +1,59 @@
+package ru.clevertec.news.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void executeShouldRunTaskOnVirtualThread() {
+        var executor = new BoundedVirtualThreadExecutor("test-", 1);
+
+        var virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+
+        assertTrue(virtual);
+    }
+
+    @Test
+    void executeShouldRejectTaskOverLimitWithoutBlocking() throws InterruptedException {
+        var executor = new BoundedVirtualThreadExecutor("test-", 1);
+        var release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> {
+        }));
+        assertEquals(1, executor.getActiveCount());
+
+        release.countDown();
+        var done = new CountDownLatch(1);
+        while (!tryExecute(executor, done::countDown)) {
+            Thread.onSpinWait();
+        }
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+    }
+
+    private static boolean tryExecute(BoundedVirtualThreadExecutor executor, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.clevertec.news.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.service.NewsService;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"cache.news-json.enabled=true", "cache.news-json.gzip-min-size=1"})
+@AutoConfigureMockMvc
+public class NewsControllerJsonCacheTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getNewsByIdShouldReturnCachedJsonWithoutEncodingWhenGzipIsNotAccepted() throws Exception {
+        var expected = newsService.findNewsById(NEWS_ID);
+
+        mockMvc.perform(get("/api/news/" + NEWS_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().json(objectMapper.writeValueAsString(expected)));
+    }
+
+    @Test
+    void getNewsByIdShouldReturnGzippedJsonWhenGzipIsAccepted() throws Exception {
+        var expected = newsService.findNewsById(NEWS_ID);
+
+        var body = mockMvc.perform(get("/api/news/" + NEWS_ID).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(expected, objectMapper.readValue(in.readAllBytes(), expected.getClass()));
+        }
+    }
+
+    @Test
+    void getNewsByIdShouldNotGzipWhenGzipIsRejected() throws Exception {
+        mockMvc.perform(get("/api/news/" + NEWS_ID).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -5,18 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.dto.page.PageParamDto;
 import ru.clevertec.news.exception.EntityNotFoundException;
 import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.service.NewsChangeService;
 import ru.clevertec.news.service.NewsService;
+import ru.clevertec.news.service.NewsTimelineService;
 import ru.clevertec.news.util.NewsTestBuilder;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.clevertec.news.constant.Constant.LIMIT;
 import static ru.clevertec.news.constant.Constant.OFFSET;
@@ -31,6 +41,12 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
     @Autowired
     private NewsService newsService;
 
+    @Autowired
+    private NewsChangeService newsChangeService;
+
+    @Autowired
+    private NewsTimelineService newsTimelineService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -54,6 +70,33 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
                 .andExpect(content().json(objectMapper.writeValueAsString(expected)));
     }
 
+    @Test
+    public void getNewsByIdShouldReturnStatus304WhenETagMatches() throws Exception {
+        var id = 1L;
+
+        var eTag = mockMvc.perform(get("/api/news/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/news/" + id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void getNewsByIdShouldReturnNewBodyAfterUpdate() throws Exception {
+        var id = 1L;
+        var eTag = mockMvc.perform(get("/api/news/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        newsService.update(NewsTestBuilder.builder().withId(id).withTitle("updated").build().buildNewsUpdateDto(), null);
+
+        mockMvc.perform(get("/api/news/" + id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("updated"));
+    }
+
     @Test
     public void getNewsByIdShouldReturnExceptionAndStatus404() throws Exception {
         var id = 20L;
@@ -77,6 +120,112 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
                 .andExpect(content().json(objectMapper.writeValueAsString(expected)));
     }
 
+    @Test
+    public void getAllNewsShouldReturnStatus304WhenPageIsUnchanged() throws Exception {
+        var url = "/api/news?pageNumber=" + OFFSET + "&pageSize=" + LIMIT;
+        var eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getAllNewsShouldReturnPageWithCurrentETagWhenClientETagIsStale() throws Exception {
+        var url = "/api/news?pageNumber=" + OFFSET + "&pageSize=" + LIMIT;
+        var eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "W/\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    public void getAllNewsByCursorShouldReturnBadRequestWhenCursorIsBroken() throws Exception {
+        mockMvc.perform(get("/api/news/cursor?cursor=broken&pageSize=" + LIMIT))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllNewsByCursorShouldReturnBadRequestWhenPageSizeIsOutOfRange() throws Exception {
+        for (var pageSize : List.of(0, -1, 101)) {
+            mockMvc.perform(get("/api/news/cursor?pageSize=" + pageSize))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void getAllNewsByCursorShouldReturnExpectedPageAndStatus200() throws Exception {
+        var expected = newsService.findAllByCursor(null, LIMIT, new NewsFilterDto(null, null), CountMode.EXACT);
+
+        mockMvc.perform(get("/api/news/cursor?pageSize=" + LIMIT + "&count=EXACT"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected)));
+    }
+
+    @Test
+    public void getAllNewsByIdsShouldReturnNewsInRequestOrderAndStatus200() throws Exception {
+        var expected = List.of(newsService.findNewsById(2L), newsService.findNewsById(1L));
+
+        mockMvc.perform(get("/api/news?ids=2,1,100000"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected), true));
+    }
+
+    @Test
+    public void getAllNewsByIdsBatchShouldReturnNewsInRequestOrderAndStatus200() throws Exception {
+        var expected = List.of(newsService.findNewsById(1L), newsService.findNewsById(2L));
+
+        mockMvc.perform(post("/api/news/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L))))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected), true));
+    }
+
+    @Test
+    public void getAllNewsByUserShouldReturnExpectedPageAndStatus200() throws Exception {
+        var userId = NewsTestBuilder.builder().build().buildNews().getUserId();
+        var expected = newsTimelineService.findAllByUser(userId, null, LIMIT);
+
+        mockMvc.perform(get("/api/news/users/" + userId + "?pageSize=" + LIMIT))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected)));
+    }
+
+    @Test
+    public void getAllNewsByUserShouldReturnBadRequestWhenCursorIsBroken() throws Exception {
+        mockMvc.perform(get("/api/news/users/1?cursor=broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllNewsByUserShouldReturnBadRequestWhenPageSizeIsOutOfRange() throws Exception {
+        for (var pageSize : List.of(0, -1, 101)) {
+            mockMvc.perform(get("/api/news/users/1?pageSize=" + pageSize))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void exportNewsShouldWriteOneJsonLinePerNews() throws Exception {
+        var expected = newsService.findAllByCursor(null, 1, new NewsFilterDto(null, null), CountMode.EXACT).totalElements();
+
+        var body = mockMvc.perform(get("/api/news/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.lines().toList();
+        assertEquals(expected.longValue(), lines.size());
+        for (var line : lines) {
+            objectMapper.readValue(line, NewsDto.class);
+        }
+    }
+
     @Test
     public void createNewsShouldReturnCreatedNewsAndStatus201() throws Exception {
         var newsCreateDto = NewsTestBuilder.builder().build().buildNewsCreateDto();
@@ -87,10 +236,24 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    public void createAllNewsShouldReturnCreatedNewsAndStatus201() throws Exception {
+        var newsCreateDtos = List.of(
+                NewsTestBuilder.builder().build().buildNewsCreateDto(),
+                NewsTestBuilder.builder().withTitle("titleTwo").build().buildNewsCreateDto()
+        );
+
+        mockMvc.perform(post("/api/news/bulk")
+                        .content(objectMapper.writeValueAsString(newsCreateDtos))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(newsCreateDtos.size()));
+    }
+
     @Test
     public void updateNewsShouldReturnUpdatedNewsAndStatus200() throws Exception {
         var newsUpdateDto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
-        var expected = newsService.update(newsUpdateDto);
+        var expected = newsService.update(newsUpdateDto, null);
 
         mockMvc.perform(put("/api/news")
                         .content(objectMapper.writeValueAsString(newsUpdateDto))
@@ -99,6 +262,45 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
                 .andExpect(content().json(objectMapper.writeValueAsString(expected)));
     }
 
+    @Test
+    public void updateNewsShouldReturnStatus412WhenIfMatchIsStale() throws Exception {
+        var newsUpdateDto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
+        var eTag = mockMvc.perform(get("/api/news/" + newsUpdateDto.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        newsService.update(newsUpdateDto, null);
+
+        mockMvc.perform(put("/api/news")
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(objectMapper.writeValueAsString(newsUpdateDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateNewsShouldReturnStatus412WhenIfMatchIsETagOfOtherNews() throws Exception {
+        var newsUpdateDto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
+        var version = newsService.findNewsVersion(newsUpdateDto.getId()).version();
+
+        mockMvc.perform(put("/api/news")
+                        .header(HttpHeaders.IF_MATCH, "\"" + (newsUpdateDto.getId() + 1) + "-" + version + "\"")
+                        .content(objectMapper.writeValueAsString(newsUpdateDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateNewsShouldReturnStatus412WhenIfMatchIsWeak() throws Exception {
+        var newsUpdateDto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
+        var eTag = mockMvc.perform(get("/api/news/" + newsUpdateDto.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/news")
+                        .header(HttpHeaders.IF_MATCH, "W/" + eTag)
+                        .content(objectMapper.writeValueAsString(newsUpdateDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void updateNewsShouldReturnExceptionAndStatus404() throws Exception {
         var newsUpdateDto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
@@ -118,4 +320,17 @@ public class NewsControllerTest extends PostgresSqlContainerInitializer {
         mockMvc.perform(delete("/api/news/" + id))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getChangesShouldReturnRelayedChangesAndStatus200() throws Exception {
+        var created = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsChangeService.relay();
+        var expected = newsChangeService.findChanges(0L, 1000).stream()
+                .filter(change -> change.newsId().equals(created.getId()))
+                .toList();
+
+        mockMvc.perform(get("/api/news/changes?since=" + (expected.get(0).sequence() - 1) + "&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected)));
+    }
+}
@@ -0,0 +1,209 @@
+package ru.clevertec.news.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.DigestUtils;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.dto.page.PageParamDto;
+import ru.clevertec.news.dto.util.PageUtils;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.specification.NewsSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что запросы NewsRepository, NewsOutboxRepository и NewsSpecification на большой таблице
+ * выполняются по индексам из миграций, а не последовательным чтением таблицы.
+ * Каждый случай вызывает методы репозиториев, SQL, который при этом строит Hibernate, перехватывается
+ * {@link StatementInspector} и выполняется в EXPLAIN с теми же значениями параметров, что передал вызов.
+ * Страницы findAll запрашиваются за концом результатов, чтобы Spring Data выполнил и запрос count по спецификации.
+ * Полный обход (streamAll, count без фильтра, очистка outbox по времени) последовательным чтением
+ * и должен выполняться, поэтому здесь не проверяется.
+ */
+@SpringBootTest
+public class NewsQueryPlanTest extends PostgresSqlContainerInitializer {
+
+    private static final int NEWS_COUNT = 100_000;
+    private static final long ID = 4242;
+    private static final LocalDateTime CURSOR_TIME = LocalDateTime.of(2024, 1, 1, 0, 0).minusMinutes(20);
+    private static final Pageable PAGE_PAST_END = PageUtils.page(new PageParamDto(11, 20));
+    private static final NewsFilterDto TITLE_FILTER = new NewsFilterDto("title " + ID, null);
+    private static final NewsFilterDto TEXT_FILTER = new NewsFilterDto(null, md5(ID));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsOutboxRepository newsOutboxRepository;
+
+    @Autowired
+    private RecordingStatementInspector statementInspector;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("insert into news (time, title, text, user_id, version, updated) "
+                + "select timestamp '2024-01-01 00:00:00' - g * interval '1 minute', 'title ' || g, 'text ' || md5(g::text), "
+                + "g % 1000, 0, timestamp '2024-01-01 00:00:00' from generate_series(1, ?) g", NEWS_COUNT);
+        jdbcTemplate.update("insert into news_outbox (id, news_id, type, time, sequence) "
+                + "select nextval('news_outbox_seq'), g, 'CREATED', localtimestamp, case when g <= ? then g end "
+                + "from generate_series(1, ?) g", NEWS_COUNT - 10, NEWS_COUNT);
+        jdbcTemplate.execute("analyze news");
+        jdbcTemplate.execute("analyze news_outbox");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryShouldNotScanTableSequentially(String name, BiConsumer<NewsRepository, NewsOutboxRepository> invocation,
+                                             List<List<Object>> parameters) throws Exception {
+        statementInspector.statements.clear();
+        invocation.accept(newsRepository, newsOutboxRepository);
+        var statements = List.copyOf(statementInspector.statements);
+
+        assertEquals(parameters.size(), statements.size(), name + ": " + statements);
+        for (int i = 0; i < statements.size(); i++) {
+            var sql = statements.get(i);
+            var values = parameters.get(i);
+            assertEquals(values.size(), sql.chars().filter(c -> c == '?').count(), name + ": " + sql);
+
+            var plan = objectMapper.readTree(jdbcTemplate.queryForObject("explain (format json) " + sql, String.class,
+                    values.toArray()));
+            var seqScans = new ArrayList<String>();
+            collectSeqScans(plan.get(0).get("Plan"), seqScans);
+
+            assertTrue(seqScans.isEmpty(), name + ": sequential scan on " + seqScans + "\n" + sql + "\n" + plan.toPrettyString());
+        }
+    }
+
+    static Stream<Arguments> queries() {
+        var titleLike = "%" + TITLE_FILTER.title() + "%";
+        var textLike = "%" + TEXT_FILTER.text() + "%";
+        return Stream.of(
+                query("findById", (news, outbox) -> news.findById(ID),
+                        List.of(ID)),
+                query("findVersionById", (news, outbox) -> news.findVersionById(ID),
+                        List.of(ID)),
+                query("findAll and count by title", (news, outbox) -> news.findAll(NewsSpecification.findAll(TITLE_FILTER), PAGE_PAST_END),
+                        List.of(titleLike, offset(PAGE_PAST_END), PAGE_PAST_END.getPageSize()), List.of(titleLike)),
+                query("findAll and count by text", (news, outbox) -> news.findAll(NewsSpecification.findAll(TEXT_FILTER), PAGE_PAST_END),
+                        List.of(textLike, offset(PAGE_PAST_END), PAGE_PAST_END.getPageSize()), List.of(textLike)),
+                query("search and count by title", (news, outbox) -> news.findAll(NewsSpecification.search(TITLE_FILTER), PAGE_PAST_END),
+                        List.of(offset(PAGE_PAST_END), PAGE_PAST_END.getPageSize()), List.of()),
+                query("search and count by text", (news, outbox) -> news.findAll(NewsSpecification.search(TEXT_FILTER), PAGE_PAST_END),
+                        List.of(offset(PAGE_PAST_END), PAGE_PAST_END.getPageSize()), List.of()),
+                query("findAllVersions count and page", (news, outbox) -> {
+                            var specification = NewsSpecification.findAll(TITLE_FILTER);
+                            news.count(specification);
+                            news.findVersions(specification, PAGE_PAST_END);
+                        },
+                        List.of(titleLike), List.of(titleLike, offset(PAGE_PAST_END), PAGE_PAST_END.getPageSize())),
+                query("findFirst", (news, outbox) -> news.findFirst(Specification.where(null), 21),
+                        List.of(21)),
+                query("findFirst after cursor", (news, outbox) -> news.findFirst(
+                                NewsSpecification.after(new NewsCursor(CURSOR_TIME, ID)), 21),
+                        List.of(CURSOR_TIME, CURSOR_TIME, CURSOR_TIME, ID, 21)),
+                query("findTimeline", (news, outbox) -> news.findTimeline(42L, PageRequest.of(0, 201)),
+                        List.of(42L, 0, 201)),
+                query("findTimelineAfter", (news, outbox) -> news.findTimelineAfter(42L, CURSOR_TIME, ID, PageRequest.of(0, 21)),
+                        List.of(42L, CURSOR_TIME, CURSOR_TIME, CURSOR_TIME, ID, 0, 21)),
+                query("updateReturning", (news, outbox) -> news.updateReturning(new News(ID, null, "title", "text", 1L, 0L, null), 0L),
+                        List.of("title", "text", 1L, CURSOR_TIME, ID, 0L, 0L)),
+                query("updateReturning title only", (news, outbox) -> news.updateReturning(new News(ID, null, "title", null, null, 0L, null), null),
+                        List.of("title", CURSOR_TIME, ID, -1L, -1L)),
+                query("deleteNewsById", (news, outbox) -> news.deleteNewsById(ID),
+                        List.of(ID)),
+                query("findUnpublished", (news, outbox) -> outbox.findUnpublished(500),
+                        List.of(500)),
+                query("findMaxSequence", (news, outbox) -> outbox.findMaxSequence(),
+                        List.of()),
+                query("findBySequenceGreaterThan", (news, outbox) -> outbox.findBySequenceGreaterThanOrderBySequence(
+                                (long) NEWS_COUNT - 1000, PageRequest.of(0, 100)),
+                        List.of((long) NEWS_COUNT - 1000, 0, 100))
+        );
+    }
+
+    /**
+     * Случай проверки: вызов репозиториев и значения параметров каждого выполненного им запроса по порядку.
+     */
+    @SafeVarargs
+    private static Arguments query(String name, BiConsumer<NewsRepository, NewsOutboxRepository> invocation,
+                                   List<Object>... parameters) {
+        return Arguments.of(name, invocation, List.of(parameters));
+    }
+
+    private static int offset(Pageable pageable) {
+        return (int) pageable.getOffset();
+    }
+
+    private static String md5(long value) {
+        return DigestUtils.md5DigestAsHex(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void collectSeqScans(JsonNode plan, List<String> seqScans) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            seqScans.add(plan.path("Relation Name").asText());
+        }
+        for (var child : plan.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    /**
+     * Запоминает SQL, который Hibernate отправляет в БД.
+     */
+    static class RecordingStatementInspector implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class StatementInspectorConfig {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector statementInspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.clevertec.news.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import feign.http2client.Http2Client;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.clevertec.news.config.BoundedVirtualThreadExecutor;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.feign.CommentClient;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+import static ru.clevertec.news.util.CommentServiceStubs.stubComments;
+
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@WireMockTest(httpPort = 9998)
+public class CommentServiceVirtualThreadsTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private feign.Client feignClient;
+
+    @Autowired
+    private Executor newsTaskExecutor;
+
+    @SpyBean
+    private CommentClient commentClient;
+
+    @Test
+    void findByNewsIdAsyncShouldCallCommentsServiceOnVirtualThread() throws JsonProcessingException {
+        var virtual = new AtomicBoolean();
+        stubComments(objectMapper, NEWS_ID);
+        doAnswer(invocation -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return invocation.callRealMethod();
+        }).when(commentClient).getByNewsId(anyInt(), anyInt(), anyLong());
+        commentService.evictByNewsId(NEWS_ID);
+
+        var actual = commentService.findByNewsIdAsync(OFFSET, LIMIT, NEWS_ID).join();
+
+        assertEquals(1, actual.size());
+        assertTrue(virtual.get());
+        assertTrue(feignClient instanceof Http2Client);
+        assertTrue(newsTaskExecutor instanceof BoundedVirtualThreadExecutor);
+    }
+}
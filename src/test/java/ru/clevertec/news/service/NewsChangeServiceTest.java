@@ -0,0 +1,115 @@
+package ru.clevertec.news.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.model.dto.NewsChangedEvent;
+import ru.clevertec.news.model.enums.NewsChangeType;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RecordApplicationEvents
+public class NewsChangeServiceTest extends PostgresSqlContainerInitializer {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsChangeService newsChangeService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void relayShouldPublishChangesInOrderWithContiguousSequences() {
+        var created = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        var updateDto = NewsTestBuilder.builder().withId(created.getId()).withTitle("updated").build().buildNewsUpdateDto();
+        newsService.update(updateDto, null);
+        newsService.delete(created.getId());
+
+        newsChangeService.relay();
+
+        var changes = changesOf(created.getId());
+        assertEquals(List.of(NewsChangeType.CREATED, NewsChangeType.UPDATED, NewsChangeType.DELETED),
+                changes.stream().map(NewsChangedEvent::type).toList());
+        assertEquals(changes.get(0).sequence() + 1, changes.get(1).sequence());
+        assertEquals(changes.get(1).sequence() + 1, changes.get(2).sequence());
+        assertEquals(changes, applicationEvents.stream(NewsChangedEvent.class)
+                .filter(event -> event.newsId().equals(created.getId()))
+                .toList());
+    }
+
+    @Test
+    void findChangesShouldReturnOnlyChangesAfterSince() {
+        var first = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsChangeService.relay();
+        var since = changesOf(first.getId()).get(0).sequence();
+        var second = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsChangeService.relay();
+
+        var actual = newsChangeService.findChanges(since, 100);
+
+        assertEquals(1, actual.size());
+        assertEquals(second.getId(), actual.get(0).newsId());
+        assertTrue(newsChangeService.findChanges(actual.get(0).sequence(), 100).isEmpty());
+    }
+
+    @Test
+    void relayShouldNotPublishChangesTwice() {
+        var created = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+
+        newsChangeService.relay();
+        newsChangeService.relay();
+
+        assertEquals(1, applicationEvents.stream(NewsChangedEvent.class)
+                .filter(event -> event.newsId().equals(created.getId()))
+                .count());
+    }
+
+    @Test
+    void deleteShouldNotRecordChangeWhenNewsNotFound() {
+        var created = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsService.delete(created.getId());
+        newsService.delete(created.getId());
+
+        newsChangeService.relay();
+
+        assertEquals(List.of(NewsChangeType.CREATED, NewsChangeType.DELETED),
+                changesOf(created.getId()).stream().map(NewsChangedEvent::type).toList());
+    }
+
+    @Test
+    void deletePublishedShouldDeleteOldChangesButKeepLastSequence() {
+        var old = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        var last = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsChangeService.relay();
+        jdbcTemplate.update("update news_outbox set time = localtimestamp - interval '30 days' where news_id in (?, ?)",
+                old.getId(), last.getId());
+
+        newsChangeService.deletePublished();
+        var next = newsService.create(NewsTestBuilder.builder().build().buildNewsCreateDto());
+        newsChangeService.relay();
+
+        assertTrue(changesOf(old.getId()).isEmpty());
+        assertEquals(1, changesOf(last.getId()).size());
+        assertEquals(changesOf(last.getId()).get(0).sequence() + 1, changesOf(next.getId()).get(0).sequence());
+    }
+
+    private List<NewsChangedEvent> changesOf(Long newsId) {
+        return newsChangeService.findChanges(0L, 1000).stream()
+                .filter(change -> change.newsId().equals(newsId))
+                .toList();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.clevertec.news.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.clevertec.news.cache.batch.NewsBatchCache;
+import ru.clevertec.news.cache.timeline.AuthorTimelineCache;
+import ru.clevertec.news.config.properties.SearchProperties;
+import ru.clevertec.news.converter.NewsConverter;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.model.enums.SearchMode;
+import ru.clevertec.news.repository.NewsOutboxRepository;
+import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.impl.NewsServiceImpl;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(NewsServiceCacheTest.CacheTestConfig.class)
+public class NewsServiceCacheTest {
+
+    private static final long NEWS_COUNT = 100;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private NewsConverter newsConverter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(newsRepository, newsConverter);
+        cacheManager.getCache("news").clear();
+        when(newsRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(NewsTestBuilder.builder().withId(invocation.getArgument(0)).build().buildNews()));
+        when(newsConverter.convert(any(News.class)))
+                .thenAnswer(invocation -> NewsTestBuilder.builder().withId(invocation.<News>getArgument(0).getId()).build().buildNewsDto());
+    }
+
+    @Test
+    void deleteShouldKeepHitRatioOfOtherNews() {
+        LongStream.rangeClosed(1, NEWS_COUNT).forEach(newsService::findNewsById);
+        clearInvocations(newsRepository);
+
+        newsService.delete(1L);
+        LongStream.rangeClosed(1, NEWS_COUNT).forEach(newsService::findNewsById);
+
+        var misses = mockingDetails(newsRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findById"))
+                .count();
+        var hitRatio = (double) (NEWS_COUNT - misses) / NEWS_COUNT;
+        assertEquals(1, misses);
+        assertEquals(0.99, hitRatio);
+    }
+
+    @Test
+    void deleteShouldEvictOnlyDeletedNews() {
+        newsService.findNewsById(1L);
+        newsService.findNewsById(2L);
+
+        newsService.delete(1L);
+
+        assertNull(cacheManager.getCache("news").get(1L));
+        assertNotNull(cacheManager.getCache("news").get(2L));
+    }
+
+    @Test
+    void createShouldPutCreatedNewsIntoCache() {
+        var createDto = NewsTestBuilder.builder().build().buildNewsCreateDto();
+        var news = NewsTestBuilder.builder().withId(7L).build().buildNews();
+        when(newsConverter.convert(createDto)).thenReturn(news);
+        when(newsRepository.save(news)).thenReturn(news);
+
+        var created = newsService.create(createDto);
+        var actual = newsService.findNewsById(7L);
+
+        assertEquals(created, actual);
+        verify(newsRepository, never()).findById(7L);
+    }
+
+    @Test
+    void updateShouldReplaceCachedNews() {
+        newsService.findNewsById(1L);
+        var updateDto = NewsTestBuilder.builder().withTitle("updated").build().buildNewsUpdateDto();
+        var updated = NewsTestBuilder.builder().withTitle("updated").build().buildNewsDto();
+        var news = NewsTestBuilder.builder().build().buildNews();
+        when(newsConverter.merge(any(News.class), any())).thenReturn(news);
+        when(newsRepository.updateReturning(news, null)).thenReturn(Optional.of(news));
+        when(newsConverter.convert(news)).thenReturn(updated);
+
+        newsService.update(updateDto, null);
+        var actual = newsService.findNewsById(1L);
+
+        assertEquals("updated", actual.getTitle());
+        verify(newsRepository, times(1)).findById(1L);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("news", "newsVersion");
+        }
+
+        @Bean
+        public NewsRepository newsRepository() {
+            return mock(NewsRepository.class);
+        }
+
+        @Bean
+        public NewsConverter newsConverter() {
+            return mock(NewsConverter.class);
+        }
+
+        @Bean
+        public CommentService commentService() {
+            return mock(CommentService.class);
+        }
+
+        @Bean
+        public NewsService newsService(NewsRepository newsRepository, NewsConverter newsConverter,
+                                       CommentService commentService) {
+            return new NewsServiceImpl(newsRepository, mock(NewsOutboxRepository.class), newsConverter, commentService,
+                    new SearchProperties(SearchMode.LIKE, true), mock(AuthorTimelineCache.class),
+                    mock(NewsBatchCache.class));
+        }
+    }
+}
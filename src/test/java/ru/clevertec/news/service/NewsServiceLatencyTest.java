@@ -0,0 +1,80 @@
+package ru.clevertec.news.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.repository.NewsRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+import static ru.clevertec.news.util.CommentServiceStubs.stubComments;
+
+@SpringBootTest
+@WireMockTest(httpPort = 9998)
+public class NewsServiceLatencyTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+    private static final int DB_DELAY = 400;
+    private static final int COMMENTS_DELAY = 400;
+    private static final int SLOW_COMMENTS_DELAY = 3000;
+    private static final int COMMENTS_TIMEOUT = 1000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @SpyBean
+    private NewsRepository newsRepository;
+
+    @Test
+    void findNewsByIdWithCommentsShouldTakeMaxOfDbAndCommentsLatency() throws JsonProcessingException {
+        warmUp();
+        stubComments(objectMapper, NEWS_ID, COMMENTS_DELAY);
+        doAnswer(invocation -> {
+            Thread.sleep(DB_DELAY);
+            return invocation.callRealMethod();
+        }).when(newsRepository).findById(NEWS_ID);
+
+        var start = System.nanoTime();
+        var actual = newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+        var elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(1, actual.getComments().size());
+        assertTrue(elapsed >= Math.max(DB_DELAY, COMMENTS_DELAY), "elapsed " + elapsed + " ms");
+        assertTrue(elapsed < DB_DELAY + COMMENTS_DELAY, "elapsed " + elapsed + " ms");
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnNewsWithoutCommentsWhenCommentsAreSlow() throws JsonProcessingException {
+        warmUp();
+        stubComments(objectMapper, NEWS_ID, SLOW_COMMENTS_DELAY);
+
+        var start = System.nanoTime();
+        var actual = newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+        var elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(NEWS_ID, actual.getId());
+        assertTrue(actual.getComments().isEmpty());
+        assertTrue(elapsed < SLOW_COMMENTS_DELAY, "elapsed " + elapsed + " ms");
+        assertTrue(elapsed >= COMMENTS_TIMEOUT, "elapsed " + elapsed + " ms");
+    }
+
+    private void warmUp() throws JsonProcessingException {
+        stubComments(objectMapper, NEWS_ID, 0);
+        newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+        commentService.evictByNewsId(NEWS_ID);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.clevertec.news.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+import static ru.clevertec.news.util.CommentServiceStubs.stubComments;
+
+@SpringBootTest
+@AutoConfigureObservability
+@WireMockTest(httpPort = 9998)
+public class NewsServiceMetricsTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void findNewsByIdWithCommentsShouldRecordServiceAndClientTimers() throws JsonProcessingException {
+        stubComments(objectMapper, NEWS_ID);
+        commentService.evictByNewsId(NEWS_ID);
+
+        newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+
+        var serviceTimer = meterRegistry.find("news.service")
+                .tag("method", "findNewsByIdWithComments")
+                .timer();
+        var clientTimer = meterRegistry.find("news.comments.client")
+                .tag("outcome", "success")
+                .timer();
+        assertNotNull(serviceTimer);
+        assertNotNull(clientTimer);
+        assertTrue(serviceTimer.count() >= 1);
+        assertTrue(clientTimer.count() >= 1);
+    }
+
+    @Test
+    void commentPageCacheShouldExposeHitAndMissCounters() throws JsonProcessingException {
+        stubComments(objectMapper, NEWS_ID);
+        commentService.evictByNewsId(NEWS_ID);
+
+        newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+        newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", "comments", "result", "miss").functionCounter().count() >= 1);
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", "comments", "result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void cacheMetersShouldHaveSameTagKeysForAllCaches() throws JsonProcessingException {
+        stubComments(objectMapper, NEWS_ID);
+        newsService.findNewsById(NEWS_ID);
+        newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+
+        for (var name : List.of("cache.gets", "cache.size")) {
+            var tagKeys = meterRegistry.find(name).meters().stream()
+                    .map(meter -> meter.getId().getTags().stream().map(Tag::getKey).collect(Collectors.toSet()))
+                    .collect(Collectors.toSet());
+            assertEquals(1, tagKeys.size(), name + ": " + tagKeys);
+        }
+    }
+}
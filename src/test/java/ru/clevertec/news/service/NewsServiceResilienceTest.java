@@ -0,0 +1,153 @@
+package ru.clevertec.news.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.dto.NewsDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+import static ru.clevertec.news.util.CommentServiceStubs.commentsResponse;
+
+@SpringBootTest(properties = {
+        "cache.comments.ttl=PT0S",
+        "cache.comments.stale-ttl=PT0S",
+        "news.comments.circuit-breaker.sliding-window-size=5",
+        "news.comments.circuit-breaker.minimum-number-of-calls=5",
+        "news.comments.bulkhead.max-concurrent-calls=4"
+})
+@WireMockTest(httpPort = 9998)
+public class NewsServiceResilienceTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+    private static final int MINIMUM_NUMBER_OF_CALLS = 5;
+    private static final int MAX_CONCURRENT_CALLS = 4;
+    private static final int CALLS = 20;
+    private static final int SLOW_COMMENTS_DELAY = 3000;
+    private static final int TIMEOUT_MARGIN = 300;
+
+    @Value("${news.comments.timeout}")
+    private Duration commentsTimeout;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CircuitBreaker commentsCircuitBreaker;
+
+    @Autowired
+    private Bulkhead commentsBulkhead;
+
+    @Autowired
+    private Executor newsTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        commentsCircuitBreaker.reset();
+        commentService.evictByNewsId(NEWS_ID);
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldServeLastPageAndOpenCircuitWhenCommentsFail() throws JsonProcessingException {
+        stubFor(get(urlPathEqualTo("/api/comments/newsId/" + NEWS_ID)).willReturn(commentsResponse(objectMapper)));
+        var expected = newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).getComments();
+        stubFor(get(urlPathEqualTo("/api/comments/newsId/" + NEWS_ID))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        for (int i = 0; i < CALLS; i++) {
+            var actual = newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID);
+
+            assertEquals(expected, actual.getComments());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, commentsCircuitBreaker.getState());
+        assertEquals(MINIMUM_NUMBER_OF_CALLS, findAll(getRequestedFor(urlPathEqualTo("/api/comments/newsId/" + NEWS_ID))).size());
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldNotWaitLongerThanTimeoutWhileCommentsAreSlow() throws Exception {
+        stubFor(get(urlPathEqualTo("/api/comments/newsId/" + NEWS_ID))
+                .willReturn(commentsResponse(objectMapper).withFixedDelay(SLOW_COMMENTS_DELAY)));
+        newsService.findNewsById(NEWS_ID);
+        var rejectedBefore = bulkheadFullFallbacks();
+        var maxElapsed = commentsTimeout.toMillis() + TIMEOUT_MARGIN;
+
+        var executor = Executors.newFixedThreadPool(CALLS);
+        try {
+            var results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < CALLS; i++) {
+                results.add(executor.submit(() -> elapsed(() -> newsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID))));
+            }
+            awaitBulkheadOccupied();
+
+            assertEquals(0, commentsBulkhead.getMetrics().getAvailableConcurrentCalls());
+            assertTrue(((ThreadPoolTaskExecutor) newsTaskExecutor).getActiveCount() <= MAX_CONCURRENT_CALLS,
+                    "comments executor is running more calls than the bulkhead admits");
+            for (var result : results) {
+                var elapsed = result.get();
+                assertTrue(elapsed <= maxElapsed, "news with comments elapsed " + elapsed + " ms");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((double) (CALLS - MAX_CONCURRENT_CALLS), bulkheadFullFallbacks() - rejectedBefore);
+        awaitBulkheadReleased();
+    }
+
+    private long elapsed(Supplier<NewsDto> read) {
+        var start = System.nanoTime();
+        read.get();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private double bulkheadFullFallbacks() {
+        var counter = meterRegistry.find("news.comments.fallbacks").tag("reason", "bulkhead-full").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitBulkheadOccupied() throws InterruptedException {
+        var deadline = System.nanoTime() + commentsTimeout.toNanos();
+        while (commentsBulkhead.getMetrics().getAvailableConcurrentCalls() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitBulkheadReleased() throws InterruptedException {
+        var deadline = System.nanoTime() + 2L * SLOW_COMMENTS_DELAY * 1_000_000;
+        while (commentsBulkhead.getMetrics().getAvailableConcurrentCalls() < MAX_CONCURRENT_CALLS
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
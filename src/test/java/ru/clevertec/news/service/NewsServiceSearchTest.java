@@ -0,0 +1,50 @@
+package ru.clevertec.news.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.dto.create.NewsCreateDto;
+import ru.clevertec.news.dto.page.PageParamDto;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+
+@SpringBootTest(properties = {"news.search.mode=FULL_TEXT", "news.search.like-fallback=true"})
+public class NewsServiceSearchTest extends PostgresSqlContainerInitializer {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Test
+    void findAllShouldFindNewsByWordOfTitle() {
+        var expected = newsService.create(new NewsCreateDto("quasar observed tonight", "text", 1L));
+
+        var actual = newsService.findAll(new PageParamDto(OFFSET, LIMIT), new NewsFilterDto("quasar", null));
+
+        assertEquals(1, actual.page().totalElements());
+        assertEquals(expected.getId(), actual.content().get(0).getId());
+    }
+
+    @Test
+    void findAllShouldFallbackToLikeWhenNoWordMatches() {
+        var expected = newsService.create(new NewsCreateDto("quasar observed tonight", "text", 1L));
+
+        var actual = newsService.findAll(new PageParamDto(OFFSET, LIMIT), new NewsFilterDto("uasa", null));
+
+        assertEquals(1, actual.page().totalElements());
+        assertEquals(expected.getId(), actual.content().get(0).getId());
+    }
+
+    @Test
+    void findAllVersionsShouldReturnEmptyPageAfterLastResult() {
+        newsService.create(new NewsCreateDto("quasar observed tonight", "text", 1L));
+
+        var actual = newsService.findAllVersions(new PageParamDto(OFFSET + 10, LIMIT), new NewsFilterDto("quasar", null));
+
+        assertEquals(1, actual.page().totalElements());
+        assertEquals(0, actual.content().size());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.clevertec.news.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class NewsServiceStatementsTest extends PostgresSqlContainerInitializer {
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void updateShouldIssueSingleStatementForNewsRow() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        newsService.update(NewsTestBuilder.builder().withTitle("warm up").build().buildNewsUpdateDto(), null);
+        entityManager.flush();
+        statistics.clear();
+
+        var actual = newsService.update(NewsTestBuilder.builder().withTitle("updated").build().buildNewsUpdateDto(), null);
+        entityManager.flush();
+
+        assertEquals("updated", actual.getTitle());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateShouldIncrementVersion() {
+        var before = newsService.findNewsVersion(1L);
+
+        newsService.update(NewsTestBuilder.builder().withTitle("updated").build().buildNewsUpdateDto(), before.version());
+
+        assertEquals(before.version() + 1, newsService.findNewsVersion(1L).version());
+    }
+}
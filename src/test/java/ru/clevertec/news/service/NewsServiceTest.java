@@ -6,24 +6,59 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.clevertec.news.cache.batch.NewsBatchCache;
+import ru.clevertec.news.cache.timeline.AuthorTimelineCache;
+import ru.clevertec.news.config.properties.SearchProperties;
 import ru.clevertec.news.converter.NewsConverter;
+import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.dto.page.PageContentDto;
 import ru.clevertec.news.dto.page.PageDto;
+import ru.clevertec.news.dto.page.PageParamDto;
+import ru.clevertec.news.exception.BatchSizeExceededException;
 import ru.clevertec.news.exception.EntityNotFoundException;
-import ru.clevertec.news.feign.CommentClient;
+import ru.clevertec.news.exception.VersionConflictException;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.model.dto.NewsFilterDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
 import ru.clevertec.news.model.entity.News;
+import ru.clevertec.news.model.entity.NewsOutbox;
+import ru.clevertec.news.model.enums.CountMode;
+import ru.clevertec.news.model.enums.NewsChangeType;
+import ru.clevertec.news.model.enums.SearchMode;
+import ru.clevertec.news.repository.NewsOutboxRepository;
 import ru.clevertec.news.repository.NewsRepository;
 import ru.clevertec.news.service.impl.NewsServiceImpl;
 import ru.clevertec.news.util.CommentTestBuilder;
+import ru.clevertec.news.util.CursorUtils;
 import ru.clevertec.news.util.NewsTestBuilder;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static ru.clevertec.news.constant.Constant.LIMIT;
 import static ru.clevertec.news.constant.Constant.OFFSET;
@@ -34,11 +69,23 @@ public class NewsServiceTest {
     @Mock
     private NewsRepository newsRepository;
 
+    @Mock
+    private NewsOutboxRepository newsOutboxRepository;
+
     @Mock
     private NewsConverter newsConverter;
 
     @Mock
-    private CommentClient commentClient;
+    private CommentService commentService;
+
+    @Mock
+    private AuthorTimelineCache authorTimelineCache;
+
+    @Mock
+    private NewsBatchCache newsBatchCache;
+
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties(SearchMode.LIKE, true);
 
     @InjectMocks
     private NewsServiceImpl newsService;
@@ -71,6 +118,44 @@ public class NewsServiceTest {
         assertEquals(exception.getClass(), EntityNotFoundException.class);
     }
 
+    @Test
+    void findAllByIdsShouldLoadOnlyCacheMissesAndKeepRequestOrder() {
+        var cached = NewsTestBuilder.builder().withId(2L).build().buildNewsDto();
+        var missing = NewsTestBuilder.builder().withId(3L).build().buildNews();
+        var loaded = NewsTestBuilder.builder().withId(3L).build().buildNewsDto();
+        var ids = List.of(3L, 2L, 4L, 3L);
+
+        when(newsBatchCache.getAll(Set.of(3L, 2L, 4L))).thenReturn(Map.of(2L, cached));
+        when(newsRepository.findAllById(List.of(3L, 4L))).thenReturn(List.of(missing));
+        when(newsConverter.convert(missing)).thenReturn(loaded);
+
+        var actual = newsService.findAllByIds(ids);
+
+        assertEquals(List.of(loaded, cached, loaded), actual);
+        verify(newsBatchCache).putAll(Map.of(3L, loaded));
+        verify(newsRepository, never()).findById(any());
+    }
+
+    @Test
+    void findAllByIdsShouldNotTouchRepositoryWhenAllNewsAreCached() {
+        var cached = NewsTestBuilder.builder().build().buildNewsDto();
+
+        when(newsBatchCache.getAll(Set.of(cached.getId()))).thenReturn(Map.of(cached.getId(), cached));
+
+        var actual = newsService.findAllByIds(List.of(cached.getId()));
+
+        assertEquals(List.of(cached), actual);
+        verifyNoInteractions(newsRepository);
+    }
+
+    @Test
+    void findAllByIdsShouldThrowBatchSizeExceededExceptionForTooManyIds() {
+        var ids = LongStream.rangeClosed(1, NewsServiceImpl.BATCH_MAX_SIZE + 1).boxed().toList();
+
+        assertThrows(BatchSizeExceededException.class, () -> newsService.findAllByIds(ids));
+        verifyNoInteractions(newsBatchCache, newsRepository);
+    }
+
     @Test
     void findNewsByIdWithCommentsShouldReturnExpectedNewsWhenFound() {
         var expected = NewsTestBuilder.builder().build().buildNews();
@@ -82,7 +167,7 @@ public class NewsServiceTest {
                 List.of(CommentTestBuilder.builder().build().buildCommentDto())
         );
 
-        when(commentClient.getByNewsId(OFFSET, LIMIT, id)).thenReturn(pageContent);
+        when(commentService.findByNewsIdAsync(OFFSET, LIMIT, id)).thenReturn(CompletableFuture.completedFuture(pageContent.content()));
         when(newsRepository.findById(id)).thenReturn(Optional.of(expected));
         when(newsConverter.convert(expected)).thenReturn(newsDto);
 
@@ -102,6 +187,149 @@ public class NewsServiceTest {
         assertEquals(exception.getClass(), EntityNotFoundException.class);
     }
 
+    @Test
+    void findAllShouldFallbackToLikeWhenFullTextSearchFindsNothing() {
+        var news = NewsTestBuilder.builder().build().buildNews();
+        var filter = new NewsFilterDto(news.getTitle(), null);
+
+        doReturn(SearchMode.FULL_TEXT).when(searchProperties).mode();
+        when(newsRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Page.empty(), new PageImpl<>(List.of(news)));
+        when(newsConverter.convertToList(List.of(news))).thenReturn(List.of(NewsTestBuilder.builder().build().buildNewsDto()));
+
+        var actual = newsService.findAll(new PageParamDto(OFFSET, LIMIT), filter);
+
+        assertEquals(1, actual.content().size());
+        verify(newsRepository, times(2)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void findAllShouldNotFallbackToLikeForPageAfterLastFullTextResult() {
+        var news = NewsTestBuilder.builder().build().buildNews();
+        var filter = new NewsFilterDto(news.getTitle(), null);
+        var pageable = PageRequest.of(10, LIMIT);
+
+        doReturn(SearchMode.FULL_TEXT).when(searchProperties).mode();
+        when(newsRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 1));
+
+        var actual = newsService.findAll(new PageParamDto(11, LIMIT), filter);
+
+        assertEquals(0, actual.content().size());
+        assertEquals(1, actual.page().totalElements());
+        verify(newsRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void findAllWithVersionsShouldReturnVersionsOfLoadedNewsWithoutSeparateQuery() {
+        var news = NewsTestBuilder.builder().build().buildNews();
+
+        when(newsRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(news)));
+        when(newsConverter.convertToList(List.of(news))).thenReturn(List.of(NewsTestBuilder.builder().build().buildNewsDto()));
+
+        var actual = newsService.findAllWithVersions(new PageParamDto(OFFSET, LIMIT), new NewsFilterDto(null, null));
+
+        assertEquals(1, actual.page().content().size());
+        assertEquals(List.of(new NewsVersionDto(news.getId(), news.getVersion(), news.getUpdated())), actual.versions());
+        verify(newsRepository, never()).findVersions(any(), any());
+        verify(newsRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void exportAllShouldPassEveryNewsToConsumerAndCloseStream() {
+        var first = NewsTestBuilder.builder().withId(1L).build().buildNews();
+        var second = NewsTestBuilder.builder().withId(2L).build().buildNews();
+        var firstDto = NewsTestBuilder.builder().withId(1L).build().buildNewsDto();
+        var secondDto = NewsTestBuilder.builder().withId(2L).build().buildNewsDto();
+        var closed = new AtomicBoolean();
+        var exported = new ArrayList<NewsDto>();
+
+        when(newsRepository.streamAll(any())).thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        when(newsConverter.convert(first)).thenReturn(firstDto);
+        when(newsConverter.convert(second)).thenReturn(secondDto);
+
+        newsService.exportAll(new NewsFilterDto(null, null), exported::add);
+
+        assertEquals(List.of(firstDto, secondDto), exported);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportAllShouldFallbackToLikeWhenFullTextSearchFindsNothing() {
+        var news = NewsTestBuilder.builder().build().buildNews();
+        var newsDto = NewsTestBuilder.builder().build().buildNewsDto();
+        var exported = new ArrayList<NewsDto>();
+
+        doReturn(SearchMode.FULL_TEXT).when(searchProperties).mode();
+        when(newsRepository.streamAll(any())).thenReturn(Stream.empty(), Stream.of(news));
+        when(newsConverter.convert(news)).thenReturn(newsDto);
+
+        newsService.exportAll(new NewsFilterDto(news.getTitle(), null), exported::add);
+
+        assertEquals(List.of(newsDto), exported);
+        verify(newsRepository, times(2)).streamAll(any());
+    }
+
+    @Test
+    void findAllByCursorShouldReturnNextCursorWhenMoreNewsExist() {
+        var first = NewsTestBuilder.builder().withId(3L).build().buildNews();
+        var second = NewsTestBuilder.builder().withId(2L).build().buildNews();
+        var third = NewsTestBuilder.builder().withId(1L).build().buildNews();
+        var filter = new NewsFilterDto(null, null);
+
+        when(newsRepository.findFirst(any(), eq(3))).thenReturn(List.of(first, second, third));
+        when(newsConverter.convertToList(List.of(first, second))).thenReturn(List.of(
+                NewsTestBuilder.builder().withId(3L).build().buildNewsDto(),
+                NewsTestBuilder.builder().withId(2L).build().buildNewsDto()
+        ));
+
+        var actual = newsService.findAllByCursor(null, 2, filter, CountMode.NONE);
+
+        assertEquals(2, actual.content().size());
+        assertEquals(second.getId(), CursorUtils.decode(actual.nextCursor()).id());
+        assertEquals(second.getTime(), CursorUtils.decode(actual.nextCursor()).time());
+        assertNull(actual.totalElements());
+        verify(newsRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void findAllByCursorShouldReturnNullCursorOnLastPage() {
+        var news = NewsTestBuilder.builder().build().buildNews();
+        var cursor = CursorUtils.encode(NewsTestBuilder.builder().withId(5L).build().buildNews());
+        var filter = new NewsFilterDto(null, null);
+
+        when(newsRepository.findFirst(any(), eq(3))).thenReturn(List.of(news));
+        when(newsConverter.convertToList(List.of(news))).thenReturn(List.of(NewsTestBuilder.builder().build().buildNewsDto()));
+        when(newsRepository.estimateCount()).thenReturn(100L);
+
+        var actual = newsService.findAllByCursor(cursor, 2, filter, CountMode.ESTIMATED);
+
+        assertNull(actual.nextCursor());
+        assertEquals(100L, actual.totalElements());
+    }
+
+    @Test
+    void findNewsVersionShouldReturnVersionWhenFound() {
+        var expected = NewsTestBuilder.builder().withVersion(3L).build().buildNewsVersionDto();
+
+        when(newsRepository.findVersionById(expected.id())).thenReturn(Optional.of(expected));
+
+        var actual = newsService.findNewsVersion(expected.id());
+
+        assertEquals(expected, actual);
+        verify(newsRepository, never()).findById(any());
+    }
+
+    @Test
+    void findNewsVersionShouldThrowEntityNotFoundExceptionWhenNewsNotFound() {
+        var id = NewsTestBuilder.builder().build().getId();
+
+        when(newsRepository.findVersionById(id)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> newsService.findNewsVersion(id));
+    }
+
     @Test
     void createShouldInvokeRepositoryWithoutNewsId() {
         var newsToSave = NewsTestBuilder.builder().withId(null).build().buildNews();
@@ -117,23 +345,185 @@ public class NewsServiceTest {
         assertThat(argumentCaptor.getValue()).hasFieldOrPropertyWithValue(News.Fields.id, null);
     }
 
+    @Test
+    void createShouldWriteOutboxRecordForCreatedNews() {
+        var newsToSave = NewsTestBuilder.builder().withId(null).build().buildNews();
+        var expected = NewsTestBuilder.builder().build().buildNews();
+        var dto = NewsTestBuilder.builder().build().buildNewsCreateDto();
+        var outboxCaptor = ArgumentCaptor.forClass(NewsOutbox.class);
+
+        doReturn(expected).when(newsRepository).save(newsToSave);
+        when(newsConverter.convert(dto)).thenReturn(newsToSave);
+
+        newsService.create(dto);
+
+        verify(newsOutboxRepository).save(outboxCaptor.capture());
+        assertEquals(expected.getId(), outboxCaptor.getValue().getNewsId());
+        assertEquals(NewsChangeType.CREATED, outboxCaptor.getValue().getType());
+    }
+
+    @Test
+    void createShouldAddCreatedNewsToAuthorTimeline() {
+        var newsToSave = NewsTestBuilder.builder().withId(null).build().buildNews();
+        var expected = NewsTestBuilder.builder().build().buildNews();
+        var dto = NewsTestBuilder.builder().build().buildNewsCreateDto();
+
+        doReturn(expected).when(newsRepository).save(newsToSave);
+        when(newsConverter.convert(dto)).thenReturn(newsToSave);
+
+        newsService.create(dto);
+
+        verify(authorTimelineCache).add(expected.getUserId(), new NewsCursor(expected.getTime(), expected.getId()));
+    }
+
+    @Test
+    void createShouldAddCreatedNewsToAuthorTimelineOnlyAfterCommit() {
+        var newsToSave = NewsTestBuilder.builder().withId(null).build().buildNews();
+        var expected = NewsTestBuilder.builder().build().buildNews();
+        var dto = NewsTestBuilder.builder().build().buildNewsCreateDto();
+
+        doReturn(expected).when(newsRepository).save(newsToSave);
+        when(newsConverter.convert(dto)).thenReturn(newsToSave);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            newsService.create(dto);
+            verify(authorTimelineCache, never()).add(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(authorTimelineCache).add(expected.getUserId(), new NewsCursor(expected.getTime(), expected.getId()));
+    }
+
+    @Test
+    void createAllShouldSaveAllNewsInOneCall() {
+        var dtos = List.of(
+                NewsTestBuilder.builder().build().buildNewsCreateDto(),
+                NewsTestBuilder.builder().withTitle("titleTwo").build().buildNewsCreateDto()
+        );
+        var newsToSave = List.of(
+                NewsTestBuilder.builder().withId(null).build().buildNews(),
+                NewsTestBuilder.builder().withId(null).withTitle("titleTwo").build().buildNews()
+        );
+        var saved = List.of(
+                NewsTestBuilder.builder().withId(1L).build().buildNews(),
+                NewsTestBuilder.builder().withId(2L).withTitle("titleTwo").build().buildNews()
+        );
+        var expected = List.of(
+                NewsTestBuilder.builder().withId(1L).build().buildNewsDto(),
+                NewsTestBuilder.builder().withId(2L).withTitle("titleTwo").build().buildNewsDto()
+        );
+
+        when(newsConverter.convertToEntityList(dtos)).thenReturn(newsToSave);
+        when(newsRepository.saveAll(newsToSave)).thenReturn(saved);
+        when(newsConverter.convertToList(saved)).thenReturn(expected);
+
+        var actual = newsService.createAll(dtos);
+
+        assertEquals(expected, actual);
+        verify(newsRepository, times(1)).saveAll(newsToSave);
+        verify(newsRepository, never()).save(any());
+    }
+
+    @Test
+    void createAllShouldThrowBatchSizeExceededExceptionForTooManyNews() {
+        var dtos = Collections.nCopies(NewsServiceImpl.BULK_MAX_SIZE + 1, NewsTestBuilder.builder().build().buildNewsCreateDto());
+
+        assertThrows(BatchSizeExceededException.class, () -> newsService.createAll(dtos));
+        verifyNoInteractions(newsRepository);
+    }
+
+    @Test
+    void createAllShouldNotTouchRepositoryForEmptyList() {
+        var actual = newsService.createAll(List.of());
+
+        assertEquals(List.of(), actual);
+        verifyNoInteractions(newsRepository);
+    }
+
+    @Test
+    void updateShouldReturnNewsUpdatedInOneStatement() {
+        var dto = NewsTestBuilder.builder().withTitle("updated").build().buildNewsUpdateDto();
+        var changes = NewsTestBuilder.builder().withTitle("updated").build().buildNews();
+        var updated = NewsTestBuilder.builder().withTitle("updated").withVersion(1L).build().buildNews();
+        var expected = NewsTestBuilder.builder().withTitle("updated").build().buildNewsDto();
+
+        when(newsConverter.merge(any(News.class), eq(dto))).thenReturn(changes);
+        when(newsRepository.updateReturning(changes, 0L)).thenReturn(Optional.of(updated));
+        when(newsConverter.convert(updated)).thenReturn(expected);
+
+        var actual = newsService.update(dto, 0L);
+
+        assertEquals(expected, actual);
+        verify(newsRepository, never()).findById(any());
+        verify(newsRepository, never()).save(any());
+    }
+
+    @Test
+    void updateShouldMoveNewsToTimelineOfNewAuthor() {
+        var dto = NewsTestBuilder.builder().withUserId(2L).build().buildNewsUpdateDto();
+        var changes = NewsTestBuilder.builder().withUserId(2L).build().buildNews();
+        var updated = NewsTestBuilder.builder().withUserId(2L).withVersion(1L).build().buildNews();
+
+        when(newsConverter.merge(any(News.class), eq(dto))).thenReturn(changes);
+        when(newsRepository.updateReturning(changes, null)).thenReturn(Optional.of(updated));
+
+        newsService.update(dto, null);
+
+        var inOrder = inOrder(authorTimelineCache);
+        inOrder.verify(authorTimelineCache).remove(updated.getId());
+        inOrder.verify(authorTimelineCache).add(2L, new NewsCursor(updated.getTime(), updated.getId()));
+    }
+
     @Test
     void updateShouldThrowEntityNotFoundExceptionWhenNewsNotFound() {
-        var id = NewsTestBuilder.builder().build().getId();
         var dto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
+        var changes = NewsTestBuilder.builder().build().buildNews();
 
-        when(newsRepository.findById(id)).thenReturn(Optional.empty());
+        when(newsConverter.merge(any(News.class), eq(dto))).thenReturn(changes);
+        when(newsRepository.updateReturning(changes, null)).thenReturn(Optional.empty());
 
-        assertThrows(EntityNotFoundException.class, () -> newsService.update(dto));
-        verify(newsRepository, times(1)).findById(id);
+        assertThrows(EntityNotFoundException.class, () -> newsService.update(dto, null));
+        verify(newsOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    void updateShouldThrowVersionConflictExceptionWhenVersionChanged() {
+        var dto = NewsTestBuilder.builder().build().buildNewsUpdateDto();
+        var changes = NewsTestBuilder.builder().build().buildNews();
+
+        when(newsConverter.merge(any(News.class), eq(dto))).thenReturn(changes);
+        when(newsRepository.updateReturning(changes, 0L)).thenReturn(Optional.empty());
+        when(newsRepository.existsById(dto.getId())).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> newsService.update(dto, 0L));
+        verify(newsOutboxRepository, never()).save(any());
     }
 
     @Test
     void delete() {
         var id = NewsTestBuilder.builder().build().getId();
 
+        when(newsRepository.deleteNewsById(id)).thenReturn(1);
+
+        newsService.delete(id);
+
+        verify(authorTimelineCache).remove(id);
+        verify(newsOutboxRepository).save(argThat(outbox -> outbox.getNewsId().equals(id)
+                && outbox.getType() == NewsChangeType.DELETED));
+    }
+
+    @Test
+    void deleteShouldNotRecordChangeWhenNewsNotFound() {
+        var id = NewsTestBuilder.builder().build().getId();
+        when(newsRepository.deleteNewsById(id)).thenReturn(0);
+
         newsService.delete(id);
 
-        verify(newsRepository).deleteById(id);
+        verify(newsOutboxRepository, never()).save(any());
+        verify(authorTimelineCache, never()).remove(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package ru.clevertec.news.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.clevertec.news.cache.timeline.AuthorTimelineCache;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.exception.InvalidPageSizeException;
+import ru.clevertec.news.model.dto.NewsCursor;
+import ru.clevertec.news.repository.NewsRepository;
+import ru.clevertec.news.service.impl.NewsTimelineServiceImpl;
+import ru.clevertec.news.util.CursorUtils;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsTimelineServiceTest {
+
+    private static final long USER_ID = 1L;
+    private static final int MAX_ITEMS = 4;
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 3, 9, 0);
+
+    @Mock
+    private NewsRepository newsRepository;
+
+    @Mock
+    private NewsService newsService;
+
+    private AuthorTimelineCache authorTimelineCache;
+
+    private NewsTimelineService newsTimelineService;
+
+    @BeforeEach
+    void setUp() {
+        authorTimelineCache = new AuthorTimelineCache(10, MAX_ITEMS, Duration.ofMinutes(1));
+        newsTimelineService = new NewsTimelineServiceImpl(newsRepository, newsService, authorTimelineCache);
+        lenient().when(newsService.findAllByIds(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .map(id -> NewsTestBuilder.builder().withId(id).build().buildNewsDto())
+                .toList());
+    }
+
+    @Test
+    void findAllByUserShouldServeRepeatedPagesFromCachedTimeline() {
+        when(newsRepository.findTimeline(USER_ID, PageRequest.of(0, MAX_ITEMS + 1))).thenReturn(entries(3, 2, 1));
+
+        var first = newsTimelineService.findAllByUser(USER_ID, null, 2);
+        var second = newsTimelineService.findAllByUser(USER_ID, first.nextCursor(), 2);
+        newsTimelineService.findAllByUser(USER_ID, null, 2);
+
+        assertEquals(List.of(3L, 2L), ids(first.content()));
+        assertEquals(List.of(1L), ids(second.content()));
+        assertNull(second.nextCursor());
+        verify(newsRepository, times(1)).findTimeline(any(), any());
+        verify(newsRepository, never()).findTimelineAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void findAllByUserShouldShowCreatedNewsWithoutReloadingTimeline() {
+        when(newsRepository.findTimeline(USER_ID, PageRequest.of(0, MAX_ITEMS + 1))).thenReturn(entries(2, 1));
+        newsTimelineService.findAllByUser(USER_ID, null, 10);
+
+        authorTimelineCache.add(USER_ID, entry(3));
+        authorTimelineCache.remove(1L);
+        var actual = newsTimelineService.findAllByUser(USER_ID, null, 10);
+
+        assertEquals(List.of(3L, 2L), ids(actual.content()));
+        verify(newsRepository, times(1)).findTimeline(any(), any());
+    }
+
+    @Test
+    void findAllByUserShouldReadDatabaseBeyondCachedPrefix() {
+        when(newsRepository.findTimeline(USER_ID, PageRequest.of(0, MAX_ITEMS + 1))).thenReturn(entries(9, 8, 7, 6, 5));
+        when(newsRepository.findTimelineAfter(USER_ID, entry(7).time(), 7L, PageRequest.of(0, 4))).thenReturn(entries(6, 5, 4, 3));
+
+        var first = newsTimelineService.findAllByUser(USER_ID, null, 3);
+        var second = newsTimelineService.findAllByUser(USER_ID, first.nextCursor(), 3);
+
+        assertEquals(List.of(9L, 8L, 7L), ids(first.content()));
+        assertEquals(CursorUtils.encode(entry(7)), first.nextCursor());
+        assertEquals(List.of(6L, 5L, 4L), ids(second.content()));
+        assertEquals(CursorUtils.encode(entry(4)), second.nextCursor());
+    }
+
+    @Test
+    void findAllByUserShouldHydratePageWithOneBatchLookup() {
+        when(newsRepository.findTimeline(USER_ID, PageRequest.of(0, MAX_ITEMS + 1))).thenReturn(entries(3, 2, 1));
+
+        newsTimelineService.findAllByUser(USER_ID, null, 2);
+
+        verify(newsService).findAllByIds(List.of(3L, 2L));
+        verify(newsService, never()).findNewsById(any());
+    }
+
+    @Test
+    void findAllByUserShouldThrowInvalidPageSizeExceptionForEmptyPage() {
+        assertThrows(InvalidPageSizeException.class, () -> newsTimelineService.findAllByUser(USER_ID, null, 0));
+        verifyNoInteractions(newsRepository, newsService);
+    }
+
+    private static List<Long> ids(List<NewsDto> news) {
+        return news.stream().map(NewsDto::getId).toList();
+    }
+
+    private static List<NewsCursor> entries(long... ids) {
+        return LongStream.of(ids).mapToObj(NewsTimelineServiceTest::entry).toList();
+    }
+
+    private static NewsCursor entry(long id) {
+        return new NewsCursor(TIME.plusMinutes(id), id);
+    }
+}
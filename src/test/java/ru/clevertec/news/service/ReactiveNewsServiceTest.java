@@ -0,0 +1,103 @@
+package ru.clevertec.news.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.clevertec.news.config.PostgresSqlContainerInitializer;
+import ru.clevertec.news.exception.EntityNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+import static ru.clevertec.news.util.CommentServiceStubs.stubCommentsOfAnyNews;
+import static ru.clevertec.news.util.CommentServiceStubs.stubCommentsOfAnyNewsFailing;
+
+@SpringBootTest(properties = {
+        "news.comments.reactive.enabled=true",
+        "cache.comments.ttl=PT0.1S",
+        "cache.comments.stale-ttl=PT0S"
+})
+@WireMockTest(httpPort = 9998)
+public class ReactiveNewsServiceTest extends PostgresSqlContainerInitializer {
+
+    private static final long NEWS_ID = 1L;
+    private static final int SLOW_COMMENTS_DELAY = 3000;
+    private static final int COMMENTS_TIMEOUT = 1000;
+    private static final int COMMENTS_TTL = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReactiveNewsService reactiveNewsService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @BeforeEach
+    void setUp() {
+        commentService.evictByNewsId(NEWS_ID);
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnNewsWithComments() throws JsonProcessingException {
+        stubCommentsOfAnyNews(objectMapper, 0);
+
+        var actual = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).block();
+
+        assertEquals(NEWS_ID, actual.getId());
+        assertEquals(1, actual.getComments().size());
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnNewsWithoutCommentsWhenCommentsAreSlow() throws JsonProcessingException {
+        stubCommentsOfAnyNews(objectMapper, SLOW_COMMENTS_DELAY);
+
+        var start = System.nanoTime();
+        var actual = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).block();
+        var elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(NEWS_ID, actual.getId());
+        assertTrue(actual.getComments().isEmpty());
+        assertTrue(elapsed < SLOW_COMMENTS_DELAY, "elapsed " + elapsed + " ms");
+        assertTrue(elapsed >= COMMENTS_TIMEOUT, "elapsed " + elapsed + " ms");
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnNewsWithoutCommentsWhenCommentsFail() {
+        stubCommentsOfAnyNewsFailing();
+
+        var actual = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).block();
+
+        assertEquals(NEWS_ID, actual.getId());
+        assertTrue(actual.getComments().isEmpty());
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnLastKnownCommentsWhenCommentsFail() throws Exception {
+        stubCommentsOfAnyNews(objectMapper, 0);
+        var expected = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).block().getComments();
+        Thread.sleep(COMMENTS_TTL * 2);
+        stubCommentsOfAnyNewsFailing();
+
+        var actual = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, NEWS_ID).block();
+
+        assertEquals(1, expected.size());
+        assertEquals(expected, actual.getComments());
+    }
+
+    @Test
+    void findNewsByIdWithCommentsShouldReturnErrorWhenNewsNotFound() throws JsonProcessingException {
+        stubCommentsOfAnyNews(objectMapper, 0);
+
+        var actual = reactiveNewsService.findNewsByIdWithComments(OFFSET, LIMIT, 20L);
+
+        assertThrows(EntityNotFoundException.class, actual::block);
+    }
+}
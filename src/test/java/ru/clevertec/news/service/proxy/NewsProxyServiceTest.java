@@ -0,0 +1,147 @@
+package ru.clevertec.news.service.proxy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.clevertec.news.cache.Cache;
+import ru.clevertec.news.cache.ttl.CacheTtlPolicy;
+import ru.clevertec.news.cache.ttl.RefreshAhead;
+import ru.clevertec.news.dto.NewsDto;
+import ru.clevertec.news.exception.EntityNotFoundException;
+import ru.clevertec.news.util.NewsTestBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsProxyServiceTest {
+
+    private static final int THREADS = 1000;
+
+    @Mock
+    private Cache<Long, NewsDto> cache;
+
+    @Mock
+    private ProceedingJoinPoint pjp;
+
+    private final Map<Long, NewsDto> storage = new ConcurrentHashMap<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NewsProxyService newsProxyService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(cache.get(any())).thenAnswer(invocation -> storage.get(invocation.<Long>getArgument(0)));
+        lenient().doAnswer(invocation -> storage.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(cache).put(any(), any());
+        newsProxyService = new NewsProxyService(cache, meterRegistry);
+    }
+
+    @Test
+    void doGetShouldLoadColdNewsOnceForConcurrentCallers() throws Throwable {
+        var expected = NewsTestBuilder.builder().build().buildNewsDto();
+        var start = new CountDownLatch(1);
+
+        when(pjp.getArgs()).thenReturn(new Object[]{expected.getId()});
+        when(pjp.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return expected;
+        });
+
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            var results = new ArrayList<Future<Object>>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return newsProxyService.doGet(pjp);
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(pjp, times(1)).proceed();
+        verify(cache, times(1)).put(expected.getId(), expected);
+        assertEquals(1.0, meterRegistry.get("cache.puts").counter().count());
+        assertEquals(THREADS, gets("hit") + gets("miss"));
+        assertEquals(0.0, meterRegistry.get("cache.loads.in.flight").gauge().value());
+    }
+
+    @Test
+    void doGetShouldReturnCachedNewsWithoutProceed() throws Throwable {
+        var expected = NewsTestBuilder.builder().build().buildNewsDto();
+        storage.put(expected.getId(), expected);
+
+        when(pjp.getArgs()).thenReturn(new Object[]{expected.getId()});
+
+        var actual = newsProxyService.doGet(pjp);
+
+        assertEquals(expected, actual);
+        verify(pjp, never()).proceed();
+        verify(cache, times(1)).get(expected.getId());
+        assertEquals(1.0, gets("hit"));
+        assertEquals(0.0, gets("miss"));
+    }
+
+    @Test
+    void doGetShouldRethrowLoadExceptionAndAllowNextLoad() throws Throwable {
+        var expected = NewsTestBuilder.builder().build().buildNewsDto();
+
+        when(pjp.getArgs()).thenReturn(new Object[]{expected.getId()});
+        when(pjp.proceed()).thenThrow(new EntityNotFoundException()).thenReturn(expected);
+
+        assertThrows(EntityNotFoundException.class, () -> newsProxyService.doGet(pjp));
+        assertEquals(expected, newsProxyService.doGet(pjp));
+        verify(pjp, times(2)).proceed();
+    }
+
+    @Test
+    void doGetShouldReloadExpiredNewsAndRefreshNewsReadNearExpiry() throws Throwable {
+        var refreshAhead = new RefreshAhead(new CacheTtlPolicy(Duration.ofMillis(100), 0, 0.9), 10, Runnable::run);
+        newsProxyService = new NewsProxyService(cache, meterRegistry, refreshAhead);
+        var expected = NewsTestBuilder.builder().build().buildNewsDto();
+        lenient().doAnswer(invocation -> storage.remove(invocation.<Long>getArgument(0))).when(cache).remove(any());
+
+        when(pjp.getArgs()).thenReturn(new Object[]{expected.getId()});
+        when(pjp.proceed()).thenReturn(expected);
+
+        newsProxyService.doGet(pjp);
+        Thread.sleep(20);
+        newsProxyService.doGet(pjp);
+        Thread.sleep(100);
+        var actual = newsProxyService.doGet(pjp);
+
+        assertEquals(expected, actual);
+        verify(pjp, times(3)).proceed();
+        verify(cache, times(1)).remove(expected.getId());
+        assertEquals(1.0, meterRegistry.get("cache.refreshes").functionCounter().count());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.clevertec.news.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import ru.clevertec.news.dto.page.PageContentDto;
+import ru.clevertec.news.dto.page.PageDto;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static ru.clevertec.news.constant.Constant.LIMIT;
+import static ru.clevertec.news.constant.Constant.OFFSET;
+
+/**
+ * Заглушки микросервиса комментариев в WireMock: страница из одного комментария {@link CommentTestBuilder}.
+ */
+@UtilityClass
+public class CommentServiceStubs {
+
+    private static final String COMMENTS_PATH = "/api/comments/newsId/";
+
+    /**
+     * Отвечает страницей комментариев на запрос комментариев новости.
+     */
+    public static void stubComments(ObjectMapper objectMapper, Long newsId) throws JsonProcessingException {
+        stubComments(objectMapper, newsId, 0);
+    }
+
+    /**
+     * Отвечает страницей комментариев на запрос комментариев новости с задержкой delay мс.
+     */
+    public static void stubComments(ObjectMapper objectMapper, Long newsId, int delay) throws JsonProcessingException {
+        stubFor(get(urlPathEqualTo(COMMENTS_PATH + newsId))
+                .willReturn(commentsResponse(objectMapper).withFixedDelay(delay)));
+    }
+
+    /**
+     * Отвечает страницей комментариев на запрос комментариев любой новости с задержкой delay мс.
+     */
+    public static void stubCommentsOfAnyNews(ObjectMapper objectMapper, int delay) throws JsonProcessingException {
+        stubFor(get(urlPathMatching(COMMENTS_PATH + ".*"))
+                .willReturn(commentsResponse(objectMapper).withFixedDelay(delay)));
+    }
+
+    /**
+     * Отвечает ошибкой 500 на запрос комментариев любой новости.
+     */
+    public static void stubCommentsOfAnyNewsFailing() {
+        stubFor(get(urlPathMatching(COMMENTS_PATH + ".*"))
+                .willReturn(serverError()));
+    }
+
+    /**
+     * Возвращает ответ со страницей из одного комментария.
+     */
+    public static ResponseDefinitionBuilder commentsResponse(ObjectMapper objectMapper) throws JsonProcessingException {
+        var pageContentDto = new PageContentDto<>(
+                new PageDto(OFFSET, LIMIT, 1, 1L),
+                List.of(CommentTestBuilder.builder().build().buildCommentDto())
+        );
+        return aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .withBody(objectMapper.writeValueAsString(pageContentDto));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.clevertec.news.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LatencyWindowTest {
+
+    private static final double P90 = 0.9;
+
+    @Test
+    void percentileShouldBeNullUntilMinSamples() {
+        var window = new LatencyWindow(10, 3, Duration.ZERO);
+        window.record(1);
+        window.record(2);
+
+        assertNull(window.percentile(P90));
+    }
+
+    @Test
+    void percentileShouldBeComputedOverLastCalls() {
+        var window = new LatencyWindow(10, 1, Duration.ZERO);
+        for (long nanos = 1; nanos <= 20; nanos++) {
+            window.record(nanos);
+        }
+
+        assertEquals(Duration.ofNanos(19), window.percentile(P90));
+    }
+
+    @Test
+    void percentileShouldBeCachedUntilRefreshInterval() throws InterruptedException {
+        var window = new LatencyWindow(10, 1, Duration.ofMillis(50));
+        window.record(1);
+        var cached = window.percentile(P90);
+        window.record(100);
+
+        assertEquals(cached, window.percentile(P90));
+        Thread.sleep(60);
+        assertEquals(Duration.ofNanos(100), window.percentile(P90));
+    }
+}
@@ -5,6 +5,7 @@ import ru.clevertec.news.dto.CommentDto;
 import ru.clevertec.news.dto.NewsDto;
 import ru.clevertec.news.dto.create.NewsCreateDto;
 import ru.clevertec.news.dto.update.NewsUpdateDto;
+import ru.clevertec.news.model.dto.NewsVersionDto;
 import ru.clevertec.news.model.entity.News;
 
 import java.time.LocalDateTime;
@@ -31,8 +32,14 @@ public class NewsTestBuilder {
     @Builder.Default
     private Long userId = 1L;
 
+    @Builder.Default
+    private Long version = 0L;
+
+    @Builder.Default
+    private LocalDateTime updated = LocalDateTime.of(2024, 1, 3, 9, 12, 15, 156);
+
     public News buildNews() {
-        return new News(id, time, title, text, userId);
+        return new News(id, time, title, text, userId, version, updated);
     }
 
     public NewsDto buildNewsDto() {
@@ -43,6 +50,10 @@ public class NewsTestBuilder {
         return new NewsCreateDto(title, text, userId);
     }
 
+    public NewsVersionDto buildNewsVersionDto() {
+        return new NewsVersionDto(id, version, updated);
+    }
+
     public NewsUpdateDto buildNewsUpdateDto() {
         return new NewsUpdateDto(id, title, text, userId);
     }